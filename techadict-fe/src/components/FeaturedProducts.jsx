@@ -1,18 +1,21 @@
-import React, { useContext, useEffect } from "react";
-import { TechContext } from "../context/TechContext.jsx";
+import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
+import { fetchFeaturedProducts } from "../service/products";
 
 export default function FeaturedProducts() {
   const navigate = useNavigate();
-  const { products, loadProducts, prodLoading } = useContext(TechContext);
+  const [featured, setFeatured] = useState([]);
+  const [prodLoading, setProdLoading] = useState(true);
 
-  // ✅ Gọi API khi component mount (nếu chưa có dữ liệu)
+  // ✅ Gọi API sản phẩm nổi bật khi component mount (không cần tải toàn bộ catalog)
   useEffect(() => {
-    if (products.length === 0) loadProducts();
+    fetchFeaturedProducts()
+      .then(setFeatured)
+      .catch(() => setFeatured([]))
+      .finally(() => setProdLoading(false));
   }, []);
 
-  // ✅ Lọc sản phẩm nổi bật
-  const featuredProducts = products.filter((p) => p.featured === true).slice(0, 6);
+  const featuredProducts = featured.slice(0, 6);
 
   // ✅ Trạng thái đang tải
   if (prodLoading) {
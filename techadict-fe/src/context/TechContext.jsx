@@ -29,14 +29,14 @@ import {
   updateCartItem,
   removeCartItem,
   clearCart,
+  checkoutCart,
 } from "../service/cart";
 import {
-  createOrder,
   getOrdersByUser,
   getOrderById,
   updateOrderStatus,
   updatePaymentStatus,
-  getAllOrders,
+  fetchOrderPage,
 } from "../service/order";
 import {
   getAddressesByUser,
@@ -552,16 +552,20 @@ const TechProvider = ({ children }) => {
   const [orderLoading, setOrderLoading] = useState(false);
   const [adminOrder, setAdminOrder] = useState([]);
 
-  const loadOrders = useCallback(async () => {
+  const [ordersNext, setOrdersNext] = useState(null);
+
+  // 🧾 Lịch sử đơn: tải 1 trang tóm tắt (có cursor → nối thêm vào danh sách hiện tại)
+  const loadOrders = useCallback(async (cursor) => {
     if (!user?.id) return;
     setOrderLoading(true);
     try {
-      const data = await getOrdersByUser(user.id);
-      setOrders(data || []);
-      return data;
+      const page = await getOrdersByUser(user.id, cursor);
+      setOrders((prev) => (cursor ? [...prev, ...page.items] : page.items));
+      setOrdersNext(page.next);
+      return page.items;
     } catch (err) {
       console.error("❌ Lỗi khi tải danh sách đơn hàng:", err);
-      setOrders([]);
+      if (!cursor) setOrders([]);
     } finally {
       setOrderLoading(false);
     }
@@ -590,19 +594,15 @@ const TechProvider = ({ children }) => {
       }
       try {
         setOrderLoading(true);
-        const result = await createOrder(orderData);
+        // 🛒 Tạo đơn + xóa các item đã đặt khỏi giỏ trong 1 request (1 transaction phía server)
+        const result = await checkoutCart(user.id, {
+          addressId: orderData.addressId,
+          shippingInfo: orderData.shippingInfo,
+          variantIds: orderData.items?.map((item) => item.variantId),
+        });
         if (result) {
           showSuccess("✅ Đặt hàng thành công!");
-          await loadOrders();
-          if (orderData?.items && orderData.items.length > 0) {
-            for (const item of orderData.items) {
-              try {
-                await handleRemoveCartItem(item.variantId);
-              } catch (err) {
-                console.warn(`⚠️ Không thể xoá ${item.variantId} khỏi giỏ:`, err);
-              }
-            }
-          }
+          await Promise.all([loadOrders(), loadCart()]);
           return result;
         }
       } catch (err) {
@@ -613,7 +613,7 @@ const TechProvider = ({ children }) => {
         setOrderLoading(false);
       }
     },
-    [user, showSuccess, showError, showInfo, loadOrders, handleClearCart]
+    [user, showSuccess, showError, showInfo, loadOrders, loadCart]
   );
 
   const handleUpdateOrderStatus = useCallback(
@@ -648,16 +648,20 @@ const TechProvider = ({ children }) => {
     [showInfo, showError, loadOrders]
   );
 
-  const loadAllOrders = useCallback(async () => {
+  const [adminOrderNext, setAdminOrderNext] = useState(null);
+
+  // 🧾 Admin: tải 1 trang đơn hàng (có cursor → nối thêm vào danh sách hiện tại)
+  const loadAllOrders = useCallback(async (filters = {}, cursor) => {
     setOrderLoading(true);
     try {
-      const data = await getAllOrders();
-      setAdminOrder(data || []);
-      return data;
+      const page = await fetchOrderPage(filters, cursor);
+      setAdminOrder((prev) => (cursor ? [...prev, ...page.items] : page.items));
+      setAdminOrderNext(page.next);
+      return page;
     } catch (err) {
-      console.error("❌ Lỗi khi tải tất cả đơn hàng:", err);
+      console.error("❌ Lỗi khi tải danh sách đơn hàng:", err);
       showError("Không thể tải danh sách đơn hàng!");
-      setAdminOrder([]);
+      if (!cursor) setAdminOrder([]);
     } finally {
       setOrderLoading(false);
     }
@@ -874,6 +878,7 @@ const TechProvider = ({ children }) => {
 
         // Order
         orders,
+        ordersNext,
         selectedOrder,
         orderLoading,
         loadOrders,
@@ -882,6 +887,7 @@ const TechProvider = ({ children }) => {
         handleUpdateOrderStatus,
         handleUpdatePaymentStatus,
         adminOrder,
+        adminOrderNext,
         loadAllOrders,
         cancelOrder,
         // Address
@@ -2,6 +2,7 @@ import { useState, useMemo, useContext, useEffect } from "react";
 import SideBarAdmin from "../../components/SideBarAdmin";
 import { Check, Loader2 } from "lucide-react";
 import { TechContext } from "../../context/TechContext.jsx";
+import { downloadOrderExport } from "../../service/order.jsx";
 
 const toNumber = (v) => (Number.isFinite(Number(v)) ? Number(v) : 0);
 const normalizeStatus = (s) => String(s || "pending").toLowerCase();
@@ -11,7 +12,7 @@ const ORDER_STATUSES = [
   "confirmed",
   "preparing",
   "delivering",
-  "completed",
+  "delivered",
   "canceled",
 ];
 
@@ -19,6 +20,7 @@ export default function OrderHistory() {
   // 🧠 Lấy dữ liệu thật từ context
   const {
     adminOrder,
+    adminOrderNext,
     setAdminOrder,
     loadAllOrders,
     handleAdminUpdateOrderStatus,
@@ -26,19 +28,24 @@ export default function OrderHistory() {
   } = useContext(TechContext);
 
   const [statusFilter, setStatusFilter] = useState("all");
+  const [exporting, setExporting] = useState(false);
+
+  // 🧩 Lọc theo trạng thái phía server, mỗi lần chỉ tải 1 trang (mới nhất trước)
+  const filters = useMemo(
+    () => (statusFilter === "all" ? {} : { status: statusFilter.toUpperCase() }),
+    [statusFilter]
+  );
 
-  // 🧩 Khi mount → load tất cả đơn hàng
   useEffect(() => {
-    loadAllOrders();
-  }, [loadAllOrders]);
+    loadAllOrders(filters);
+  }, [loadAllOrders, filters]);
 
-  // 🧮 Lọc đơn hàng theo trạng thái
+  // 🧮 Đơn vừa đổi trạng thái có thể không còn khớp bộ lọc
   const visibleOrders = useMemo(() => {
-    let arr = Array.isArray(adminOrder) ? [...adminOrder] : [];
-    if (statusFilter !== "all")
-      arr = arr.filter((o) => normalizeStatus(o.status) === statusFilter);
-    // 🔄 Sắp xếp đơn mới nhất lên đầu
-    return arr.sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt));
+    const arr = Array.isArray(adminOrder) ? adminOrder : [];
+    return statusFilter === "all"
+      ? arr
+      : arr.filter((o) => normalizeStatus(o.status) === statusFilter);
   }, [adminOrder, statusFilter]);
 
   // ⚙️ Cập nhật trạng thái đơn
@@ -60,10 +67,28 @@ export default function OrderHistory() {
       alert(`✅ Đã cập nhật đơn hàng #${orderId} sang "${newStatus}"`);
     } catch (err) {
       console.error("❌ Lỗi cập nhật trạng thái:", err);
+      // 409: đơn vừa bị đổi ở nơi khác (vd. khách đã hủy) → tải lại danh sách
+      if (err.response?.status === 409) {
+        alert(`⚠️ ${err.response.data?.message || "Đơn hàng đã thay đổi"} — danh sách sẽ được tải lại.`);
+        loadAllOrders(filters);
+        return;
+      }
       alert("Không thể cập nhật trạng thái, vui lòng thử lại!");
     }
   };
 
+  // 📤 Xuất toàn bộ đơn hàng ra CSV (server ghi dần, không giới hạn số đơn)
+  const handleExport = async () => {
+    setExporting(true);
+    try {
+      await downloadOrderExport("csv");
+    } catch {
+      alert("Không thể xuất đơn hàng, vui lòng thử lại!");
+    } finally {
+      setExporting(false);
+    }
+  };
+
   return (
     <div className="flex">
       <SideBarAdmin />
@@ -93,6 +118,14 @@ export default function OrderHistory() {
               </button>
             );
           })}
+          <button
+            onClick={handleExport}
+            disabled={exporting}
+            className="ml-auto px-3 py-1.5 rounded-full text-sm border border-green-600 text-green-700 hover:bg-green-50 disabled:opacity-50 flex items-center gap-1"
+          >
+            {exporting && <Loader2 className="w-4 h-4 animate-spin" />}
+            Xuất CSV
+          </button>
         </div>
 
         {/* Bảng đơn hàng */}
@@ -161,6 +194,19 @@ export default function OrderHistory() {
             </tbody>
           </table>
         </div>
+
+        {/* Tải thêm trang sau */}
+        {adminOrderNext && (
+          <div className="text-center mt-4">
+            <button
+              onClick={() => loadAllOrders(filters, adminOrderNext)}
+              disabled={orderLoading}
+              className="px-4 py-2 rounded-lg border border-gray-300 bg-white hover:bg-gray-100 text-sm disabled:opacity-50"
+            >
+              {orderLoading ? "Đang tải..." : "Xem thêm"}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -1,173 +1,80 @@
-import React, { useContext, useMemo, useState, useEffect } from 'react';
+import React, { useMemo, useState, useEffect } from 'react';
 import SideBarAdmin from '../../components/SideBarAdmin';
 import MonthlyRevenueChart from "../../components/Chart";
-import { TechContext } from '../../context/TechContext';
+import { fetchStatistics, fetchMonthlySales } from '../../service/statistics';
 import { BarChart3, TrendingUp, Users, ShoppingBag } from 'lucide-react';
 
-const Statistic = () => {
-  const { setOrder, setUser } = useContext(TechContext);
-  const [timeRange, setTimeRange] = useState('all'); // all, year, month, week
+// 🗓️ Khoảng thời gian → tham số from (yyyy-MM-dd) cho API thống kê
+const toIsoDate = (d) => d.toISOString().slice(0, 10);
+const rangeParams = (timeRange) => {
+  const now = new Date();
+  switch (timeRange) {
+    case 'week':
+      return { from: toIsoDate(new Date(now.getTime() - 7 * 24 * 60 * 60 * 1000)) };
+    case 'month':
+      return { from: toIsoDate(new Date(now.getTime() - 30 * 24 * 60 * 60 * 1000)) };
+    case 'year':
+      return { from: `${now.getFullYear()}-01-01` };
+    default:
+      return {};
+  }
+};
 
-  // ✅ Mock data (thay thế API)
-  const mockOrders = [
-    {
-      id: "ORD-001",
-      user_id: "USER-001",
-      created_at: "2024-10-15",
-      status: "completed",
-      total: 3500000,
-      items: [
-        { product_id: "PROD-1-A", quantity: 2, price: 1500000 },
-        { product_id: "PROD-2-B", quantity: 1, price: 500000 }
-      ]
-    },
-    {
-      id: "ORD-002",
-      user_id: "USER-002",
-      created_at: "2024-10-20",
-      status: "processing",
-      total: 2200000,
-      items: [
-        { product_id: "PROD-2-B", quantity: 2, price: 1100000 },
-      ]
-    },
-    {
-      id: "ORD-003",
-      user_id: "USER-003",
-      created_at: "2024-11-03",
-      status: "pending",
-      total: 1800000,
-      items: [
-        { product_id: "PROD-3-C", quantity: 3, price: 600000 },
-      ]
-    },
-    {
-      id: "ORD-004",
-      user_id: "USER-002",
-      created_at: "2024-11-07",
-      status: "completed",
-      total: 4200000,
-      items: [
-        { product_id: "PROD-1-A", quantity: 1, price: 1500000 },
-        { product_id: "PROD-4-D", quantity: 2, price: 1350000 },
-      ]
-    }
-  ];
+// Biểu đồ luôn hiển thị 6 tháng gần nhất
+const chartParams = () => {
+  const start = new Date();
+  start.setDate(1);
+  start.setMonth(start.getMonth() - 5);
+  return { from: toIsoDate(start) };
+};
 
-  const mockUsers = [
-    { id: "USER-001", name: "Nguyen Van A", created_at: "2024-10-01" },
-    { id: "USER-002", name: "Tran Thi B", created_at: "2024-10-10" },
-    { id: "USER-003", name: "Le Van C", created_at: "2024-11-01" },
-    { id: "USER-004", name: "Pham Thi D", created_at: "2024-11-05" },
-  ];
+const Statistic = () => {
+  const [timeRange, setTimeRange] = useState('all'); // all, year, month, week
+  const [statistics, setStatistics] = useState(null);
+  const [monthly, setMonthly] = useState([]);
 
-  const mockProducts = [
-    { id: "PROD-1", name: "Tai nghe Bluetooth" },
-    { id: "PROD-2", name: "Chuột không dây" },
-    { id: "PROD-3", name: "Bàn phím cơ" },
-    { id: "PROD-4", name: "Loa mini" },
-  ];
+  // ✅ Server tính sẵn (GROUP BY), trang chỉ nhận vài dòng kết quả
+  useEffect(() => {
+    fetchStatistics({ ...rangeParams(timeRange), top: 5 })
+      .then(setStatistics)
+      .catch(() => setStatistics(null));
+  }, [timeRange]);
 
   useEffect(() => {
-    setOrder(mockOrders);
-    setUser(mockUsers);
+    fetchMonthlySales(chartParams())
+      .then(setMonthly)
+      .catch(() => setMonthly([]));
   }, []);
 
-  const orders = mockOrders;
-  const usersRaw = mockUsers;
-  const productsRoot = mockProducts;
-
   const stats = useMemo(() => {
-    if (!orders?.length) return null;
-
-    const now = new Date();
-    const filteredOrders = orders.filter(order => {
-      const orderDate = new Date(order.created_at);
-      switch (timeRange) {
-        case 'week':
-          return now - orderDate <= 7 * 24 * 60 * 60 * 1000;
-        case 'month':
-          return now - orderDate <= 30 * 24 * 60 * 60 * 1000;
-        case 'year':
-          return orderDate.getFullYear() === now.getFullYear();
-        default:
-          return true;
-      }
-    });
-
-    // Tổng doanh thu
-    const totalRevenue = filteredOrders.reduce((sum, order) => sum + (order.total || 0), 0);
-
-    // Đơn hàng theo trạng thái
-    const ordersByStatus = filteredOrders.reduce((acc, order) => {
-      acc[order.status] = (acc[order.status] || 0) + 1;
-      return acc;
-    }, {});
-
-    // Tính top sản phẩm
-    const productSales = {};
-    filteredOrders.forEach(order => {
-      order.items?.forEach(item => {
-        const baseId = item.product_id.split('-')[0];
-        productSales[baseId] = (productSales[baseId] || 0) + item.quantity;
-      });
-    });
-
-    const topProducts = Object.entries(productSales)
-      .sort(([, a], [, b]) => b - a)
-      .slice(0, 5)
-      .map(([id, quantity]) => {
-        const product = productsRoot.find(p => p.id === id);
-        return {
-          name: product?.name || 'Unknown Product',
-          quantity,
-          revenue: filteredOrders.reduce((sum, order) => {
-            const item = order.items?.find(i => i.product_id.startsWith(id));
-            return sum + (item ? item.price * item.quantity : 0);
-          }, 0)
-        };
-      });
-
-    const uniqueCustomers = new Set(filteredOrders.map(o => o.user_id)).size;
-    const averageOrderValue = totalRevenue / filteredOrders.length;
-
+    if (!statistics) return null;
+    const summary = statistics.summary || {};
     return {
-      totalRevenue,
-      ordersByStatus,
-      topProducts,
-      uniqueCustomers,
-      averageOrderValue,
-      totalOrders: filteredOrders.length
+      totalRevenue: Number(summary.totalRevenue || 0),
+      totalOrders: summary.totalOrders || 0,
+      uniqueCustomers: summary.uniqueCustomers || 0,
+      averageOrderValue: Number(summary.averageOrderValue || 0),
+      ordersByStatus: Object.fromEntries(
+        (statistics.byStatus || []).map((s) => [String(s.status).toLowerCase(), s.orders])
+      ),
+      topProducts: (statistics.topProducts || []).map((p) => ({
+        name: p.productName || 'Unknown Product',
+        quantity: p.quantity,
+        revenue: Number(p.revenue || 0),
+      })),
     };
-  }, [orders, timeRange, productsRoot]);
-
-  const chartData = useMemo(() => {
-    if (!orders?.length) return [];
-    const months = Array.from({ length: 6 }, (_, i) => {
-      const date = new Date();
-      date.setMonth(date.getMonth() - i);
-      return date.toLocaleString('en-US', { month: 'short' });
-    }).reverse();
-
-    return months.map(month => {
-      const monthOrders = orders.filter(order => {
-        const orderDate = new Date(order.created_at);
-        return orderDate.toLocaleString('en-US', { month: 'short' }) === month;
-      });
-
-      const monthUsers = usersRaw.filter(user => {
-        const userDate = new Date(user.created_at);
-        return userDate.toLocaleString('en-US', { month: 'short' }) === month;
-      });
-
-      return {
-        month,
-        sales: monthOrders.reduce((sum, order) => sum + (order.total || 0), 0),
-        orders: monthOrders.length,
-        users: monthUsers.length
-      };
-    });
-  }, [orders, usersRaw]);
+  }, [statistics]);
+
+  const chartData = useMemo(
+    () =>
+      monthly.map((m) => ({
+        month: new Date(`${m.month}-01`).toLocaleString('en-US', { month: 'short' }),
+        sales: Number(m.revenue || 0),
+        orders: m.orders,
+        users: m.newUsers,
+      })),
+    [monthly]
+  );
 
   return (
     <div className="flex">
@@ -256,8 +163,8 @@ const Statistic = () => {
                     <div key={status} className="flex justify-between">
                       <div className="flex items-center gap-2">
                         <div className={`w-3 h-3 rounded-full ${
-                          status === 'completed' ? 'bg-green-500' :
-                          status === 'processing' ? 'bg-yellow-500' :
+                          status === 'delivered' ? 'bg-green-500' :
+                          status === 'delivering' ? 'bg-yellow-500' :
                           status === 'pending' ? 'bg-blue-500' :
                           'bg-gray-400'
                         }`} />
@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useContext } from "react";
 import { useSearchParams, Link } from "react-router-dom";
 import { TechContext } from "../context/TechContext.jsx";
+import { searchProducts } from "../service/products";
 
 const ProductPage = () => {
   const {
@@ -19,6 +20,7 @@ const ProductPage = () => {
   const [sortBy, setSortBy] = useState("newest");
   const [filteredProducts, setFilteredProducts] = useState([]);
   const [searchQuery, setSearchQuery] = useState("");
+  const [searchResults, setSearchResults] = useState(null);
   const [loading, setLoading] = useState(true);
 
   // Load initial data
@@ -36,12 +38,29 @@ const ProductPage = () => {
     setSearchQuery(searchFromUrl?.toLowerCase() || "");
   }, [searchParams]);
 
+  // 🔎 Tìm kiếm phía server (index đã bỏ dấu, xếp hạng theo độ liên quan)
+  useEffect(() => {
+    if (!searchQuery) {
+      setSearchResults(null);
+      return;
+    }
+    let cancelled = false;
+    setLoading(true);
+    searchProducts(searchQuery, 0, 100)
+      .then((res) => !cancelled && setSearchResults(res.items || []))
+      .catch(() => !cancelled && setSearchResults([]));
+    return () => {
+      cancelled = true;
+    };
+  }, [searchQuery]);
+
   // Filter logic
   useEffect(() => {
     if (!products) return;
+    if (searchQuery && searchResults === null) return;
 
     setLoading(true);
-    let filtered = [...products];
+    let filtered = searchQuery ? [...searchResults] : [...products];
 
     // ⭐ FILTER CATEGORY — FIX CHUẨN
     if (selectedCategory) {
@@ -57,22 +76,10 @@ const ProductPage = () => {
       }
     }
 
-    // 🔎 FILTER SEARCH (name + brandName + categoryName)
-    if (searchQuery) {
-      filtered = filtered.filter((p) => {
-        const q = searchQuery.toLowerCase();
-        return (
-          p.name.toLowerCase().includes(q) ||
-          p.brandName?.toLowerCase().includes(q) ||
-          p.categoryName?.toLowerCase().includes(q)
-        );
-      });
-    }
-
-    // PRICE + SORT (giữ nguyên)
+    // PRICE + SORT — minPrice do server tính sẵn từ các variant
     filtered.sort((a, b) => {
-      const aPrice = Math.min(...(a.variants?.map((v) => v.price) || [0]));
-      const bPrice = Math.min(...(b.variants?.map((v) => v.price) || [0]));
+      const aPrice = a.minPrice ?? 0;
+      const bPrice = b.minPrice ?? 0;
       if (sortBy === "price-low") return aPrice - bPrice;
       if (sortBy === "price-high") return bPrice - aPrice;
       return 0;
@@ -80,7 +87,7 @@ const ProductPage = () => {
 
     setFilteredProducts(filtered);
     setLoading(false);
-  }, [products, selectedCategory, searchQuery, sortBy]);
+  }, [products, searchResults, selectedCategory, searchQuery, sortBy]);
 
   const formatPrice = (price) =>
     price ? price.toLocaleString("vi-VN") + "₫" : "—";
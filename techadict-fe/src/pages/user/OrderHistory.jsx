@@ -13,13 +13,13 @@ export default function OrderHistory() {
   const {
     user,
     orders,
+    ordersNext,
     loadOrders,
+    loadOrderDetail,
     orderLoading,
-    loadAddressDetail,
     cancelOrder,
   } = useContext(TechContext);
 
-  const [ordersWithAddress, setOrdersWithAddress] = useState([]);
   const [selectedOrder, setSelectedOrder] = useState(null);
   const [isModalOpen, setIsModalOpen] = useState(false);
 
@@ -31,28 +31,14 @@ export default function OrderHistory() {
   }, [user, loadOrders]);
 
   // ===============================
-  // 🏠 GẮN ĐỊA CHỈ
+  // 🔍 MỞ CHI TIẾT (danh sách chỉ có tóm tắt → tải items khi mở)
   // ===============================
-  useEffect(() => {
-    const enrich = async () => {
-      const enriched = await Promise.all(
-        (orders || []).map(async (o) => {
-          if (!o.addressId) return o;
-          try {
-            const addr = await loadAddressDetail(o.addressId);
-            return { ...o, address: addr };
-          } catch {
-            return o;
-          }
-        })
-      );
-
-      enriched.sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt));
-      setOrdersWithAddress(enriched);
-    };
-
-    if (orders?.length > 0) enrich();
-  }, [orders, loadAddressDetail]);
+  const openOrder = async (order) => {
+    setSelectedOrder(order);
+    setIsModalOpen(true);
+    const detail = await loadOrderDetail(order.id);
+    if (detail) setSelectedOrder(detail);
+  };
 
   // ===============================
   // STATUS RENDER
@@ -101,7 +87,7 @@ export default function OrderHistory() {
   // ===============================
   // LOADING
   // ===============================
-  if (orderLoading)
+  if (orderLoading && !orders?.length)
     return (
       <div className="flex justify-center items-center h-60 text-gray-600">
         <ShieldCheck className="w-5 h-5 mr-2 animate-spin" />
@@ -109,7 +95,7 @@ export default function OrderHistory() {
       </div>
     );
 
-  if (!ordersWithAddress.length)
+  if (!orders?.length)
     return (
       <div className="text-center text-gray-500 py-10">
         <i className="ri-shopping-bag-line text-4xl text-gray-400"></i>
@@ -124,17 +110,14 @@ export default function OrderHistory() {
     <div className="p-4 sm:p-6">
       <h2 className="text-2xl font-bold mb-6">Lịch sử đơn hàng</h2>
 
-      {ordersWithAddress.map((order) => {
+      {orders.map((order) => {
         const st = getStatusInfo(order.status);
 
         return (
           <div
             key={order.id}
             className="border bg-white rounded-lg p-5 mb-4 hover:shadow-lg cursor-pointer"
-            onClick={() => {
-              setSelectedOrder(order);
-              setIsModalOpen(true);
-            }}
+            onClick={() => openOrder(order)}
           >
             <div className="flex justify-between">
               <div>
@@ -149,7 +132,7 @@ export default function OrderHistory() {
 
                 <p className="font-semibold">Mã đơn: {order.id}</p>
                 <p className="text-sm text-gray-500">
-                  Tổng tiền: {formatCurrency(order.totalAmount)}
+                  {order.itemCount} sản phẩm · Tổng tiền: {formatCurrency(order.totalAmount)}
                 </p>
               </div>
             </div>
@@ -157,6 +140,18 @@ export default function OrderHistory() {
         );
       })}
 
+      {ordersNext && (
+        <div className="text-center">
+          <button
+            onClick={() => loadOrders(ordersNext)}
+            disabled={orderLoading}
+            className="px-4 py-2 border rounded-lg text-sm hover:bg-gray-100 disabled:opacity-50"
+          >
+            {orderLoading ? "Đang tải..." : "Xem thêm"}
+          </button>
+        </div>
+      )}
+
       {/* ====================== MODAL ====================== */}
       {isModalOpen &&
         selectedOrder &&
@@ -199,8 +194,11 @@ export default function OrderHistory() {
                 </p>
 
                 <h4 className="font-semibold">Sản phẩm:</h4>
+                {!selectedOrder.items && (
+                  <p className="text-sm text-gray-500">Đang tải...</p>
+                )}
                 <ul className="space-y-2">
-                  {selectedOrder.items.map((it, i) => (
+                  {(selectedOrder.items || []).map((it, i) => (
                     <li key={i} className="flex justify-between border-b pb-1">
                       <span>
                         {it.variantName} × {it.quantity}
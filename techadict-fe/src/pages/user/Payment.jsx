@@ -67,6 +67,7 @@ export default function Payment() {
     // ✅ Chuẩn bị dữ liệu đơn hàng
     const orderData = {
       userId: user.id,
+      paymentMethod: paymentMethod === "bank" ? "BANK" : "COD",
       items: selectedItems.map((item) => ({
         variantId: item.variantId,
         quantity: item.quantity,
@@ -91,3 +91,26 @@ export async function clearCart(userId) {
     throw err;
   }
 }
+
+/**
+ * ✅ Đặt hàng từ giỏ: server tạo đơn, giữ hàng và xóa các item đã đặt trong 1 transaction
+ * @param {string} userId
+ * @param {{addressId?: string, shippingInfo?: Object, variantIds?: string[]}} data
+ *        variantIds: các sản phẩm được chọn (bỏ trống = cả giỏ)
+ * @returns {Promise<Object>} OrderResponse
+ */
+export async function checkoutCart(userId, data, idempotencyKey = crypto.randomUUID(), retries = 2) {
+  try {
+    const res = await instance.post(`${endpoint.CARTS}/${userId}/checkout`, data, {
+      headers: { "Idempotency-Key": idempotencyKey },
+    });
+    return res.data?.result;
+  } catch (err) {
+    // Mất mạng → gửi lại với CÙNG key, server trả lại đúng đơn đã tạo
+    if (!err.response && retries > 0) {
+      return checkoutCart(userId, data, idempotencyKey, retries - 1);
+    }
+    console.error("❌ [CartService] Lỗi khi đặt hàng từ giỏ:", err.response?.data || err.message);
+    throw err;
+  }
+}
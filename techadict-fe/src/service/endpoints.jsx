@@ -12,4 +12,6 @@ export const endpoint = {
   ROLE: '/roles',
   PERMISSION: '/permissions',
   BRAND: '/brands',
+  STATISTICS: '/admin/statistics',
+  ORDER_EXPORT: '/admin/orders/export',
 }
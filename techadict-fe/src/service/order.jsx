@@ -6,32 +6,77 @@ import { endpoint } from "./endpoints.jsx";
 // ============================
 
 // ✅ 1. Tạo đơn hàng mới
-export const createOrder = async (data) => {
+// Mỗi lần đặt hàng có 1 Idempotency-Key; mất mạng thì gửi lại với CÙNG key,
+// server trả lại đúng đơn đã tạo thay vì tạo đơn mới / trừ kho lần nữa
+export const createOrder = async (data, idempotencyKey = crypto.randomUUID(), retries = 2) => {
   try {
-    const res = await api.post(endpoint.ORDERS, data);
+    const res = await api.post(endpoint.ORDERS, data, {
+      headers: { "Idempotency-Key": idempotencyKey },
+    });
     return res.data?.result;
   } catch (err) {
+    if (!err.response && retries > 0) {
+      return createOrder(data, idempotencyKey, retries - 1);
+    }
     console.error("❌ Lỗi khi tạo đơn hàng:", err.response?.data || err.message);
     throw err;
   }
 };
 
-// ✅ 2. Lấy tất cả đơn hàng (Admin)
-export const getAllOrders = async () => {
+// ✅ 1b. Gửi đơn vào hàng đợi (server trả 202 + id đơn ngay, tạo đơn ở phía sau)
+// Dùng waitForOrder(id) để chờ đơn tạo xong
+export const submitOrder = async (data, idempotencyKey = crypto.randomUUID(), retries = 2) => {
+  try {
+    const res = await api.post(endpoint.ORDERS, data, {
+      params: { mode: "async" },
+      headers: { "Idempotency-Key": idempotencyKey },
+    });
+    return res.data?.result;
+  } catch (err) {
+    if (!err.response && retries > 0) {
+      return submitOrder(data, idempotencyKey, retries - 1);
+    }
+    console.error("❌ Lỗi khi gửi đơn hàng:", err.response?.data || err.message);
+    throw err;
+  }
+};
+
+// ✅ 1c. Hỏi trạng thái đến khi đơn hết PROCESSING (tạo xong) hoặc báo lỗi
+export const waitForOrder = async (orderId, { interval = 1000, timeout = 60000 } = {}) => {
+  const deadline = Date.now() + timeout;
+  while (Date.now() < deadline) {
+    const res = await api.get(`${endpoint.ORDERS}/${orderId}`);
+    const order = res.data?.result;
+    if (!order) {
+      throw new Error(res.data?.message || "Không thể tạo đơn hàng");
+    }
+    if (order.status !== "PROCESSING") {
+      return order;
+    }
+    await new Promise((resolve) => setTimeout(resolve, interval));
+  }
+  throw new Error(`Đơn hàng ${orderId} vẫn đang được xử lý`);
+};
+
+// ✅ 2. Lấy 1 trang đơn hàng (Admin) — lọc phía server, mới nhất trước
+// filters: { status, paymentStatus, userId, from: "yyyy-MM-dd", to: "yyyy-MM-dd" }
+export const fetchOrderPage = async (filters = {}, cursor, size) => {
   try {
-    const res = await api.get(endpoint.ORDERS);
-    return res.data?.result || [];
+    const res = await api.get(endpoint.ORDERS, { params: { ...filters, cursor, size } });
+    return { items: res.data?.result || [], next: res.data?.next || null };
   } catch (err) {
     console.error("❌ Lỗi khi lấy danh sách đơn hàng:", err.response?.data || err.message);
     throw err;
   }
 };
 
-// ✅ 3. Lấy danh sách đơn hàng theo userId
-export const getOrdersByUser = async (userId) => {
+// ✅ 3. Lịch sử đơn hàng của user (tóm tắt, phân trang keyset, mới nhất trước)
+// Mỗi đơn chỉ có id, createdAt, status, totalAmount, itemCount, paymentMethod, paymentStatus
+// → chi tiết (items) lấy qua getOrderById khi mở đơn
+export const getOrdersByUser = async (userId, cursor, size) => {
   try {
-    const res = await api.get(`${endpoint.ORDERS}/user/${userId}`);
-    return res.data?.result || [];
+    const res = await api.get(`${endpoint.ORDERS}/user/${userId}`, { params: { cursor, size } });
+    return { items: res.data?.result || [], next: res.data?.next || null };
   } catch (err) {
     console.error("❌ Lỗi khi lấy đơn hàng theo user:", err.response?.data || err.message);
     throw err;
@@ -62,6 +107,18 @@ export const updateOrderStatus = async (orderId, status) => {
   }
 };
 
+// ✅ 5b. Chuyển trạng thái nhiều đơn một lần (Admin / kho)
+// Trả { status, requested, updated, results: [{ orderId, outcome, previousStatus }] }
+export const bulkUpdateOrderStatus = async (orderIds, status) => {
+  try {
+    const res = await api.post(`${endpoint.ORDERS}/status:bulk`, { orderIds, status });
+    return res.data?.result;
+  } catch (err) {
+    console.error("❌ Lỗi khi cập nhật trạng thái hàng loạt:", err.response?.data || err.message);
+    throw err;
+  }
+};
+
 // ✅ 6. Cập nhật trạng thái thanh toán
 export const updatePaymentStatus = async (orderId, status) => {
   try {
@@ -74,3 +131,26 @@ export const updatePaymentStatus = async (orderId, status) => {
     throw err;
   }
 };
+
+// ✅ 7. Xuất đơn hàng (Admin) — format: "csv" | "ndjson", from / to: "yyyy-MM-dd" (bỏ trống = tất cả)
+// Server ghi dần từng dòng; trình duyệt nhận xong thì lưu thành file
+export const downloadOrderExport = async (format = "csv", from, to) => {
+  try {
+    const res = await api.get(endpoint.ORDER_EXPORT, {
+      params: { format, from, to },
+      responseType: "blob",
+      timeout: 0,
+    });
+    const name =
+      /filename="?([^";]+)"?/.exec(res.headers["content-disposition"] || "")?.[1] || `orders.${format}`;
+    const url = URL.createObjectURL(res.data);
+    const link = document.createElement("a");
+    link.href = url;
+    link.download = name;
+    link.click();
+    URL.revokeObjectURL(url);
+  } catch (err) {
+    console.error("❌ Lỗi khi xuất đơn hàng:", err.response?.data || err.message);
+    throw err;
+  }
+};
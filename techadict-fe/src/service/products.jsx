@@ -6,15 +6,100 @@ import { endpoint } from "./endpoints"; // ✅ import danh sách endpoint
 // ==============================
 
 /**
- * ✅ Lấy tất cả sản phẩm
+ * ✅ Lấy 1 trang sản phẩm (phân trang keyset)
+ * @param {string} [cursor] cursor `next` của trang trước
+ * @param {number} [size] số sản phẩm mỗi trang (tối đa 100)
+ * @param {"newest"|"price_asc"|"price_desc"} [sort] thứ tự sắp xếp (server sắp theo index)
+ * @returns {Promise<{items: Array, next: string|null}>}
+ */
+export const fetchProductPage = async (cursor, size, sort) => {
+  try {
+    const res = await api.get(endpoint.PRODUCT, { params: { cursor, size, sort } });
+    return { items: res.data?.result || [], next: res.data?.next || null };
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchProductPage:", err);
+    throw err;
+  }
+};
+
+/**
+ * ✅ Lấy 1 trang thẻ sản phẩm (view=card): id, name, image, minPrice, featured
+ * @param {string} [cursor] cursor `next` của trang trước
+ * @param {number} [size] số sản phẩm mỗi trang (tối đa 100)
+ * @returns {Promise<{items: Array, next: string|null}>}
+ */
+export const fetchProductCards = async (cursor, size) => {
+  try {
+    const res = await api.get(endpoint.PRODUCT, { params: { view: "card", cursor, size } });
+    return { items: res.data?.result || [], next: res.data?.next || null };
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchProductCards:", err);
+    throw err;
+  }
+};
+
+/**
+ * ✅ Lấy tất cả sản phẩm (duyệt lần lượt các trang)
  * @returns {Promise<Array>} danh sách ProductResponse
  */
 export const fetchAllProducts = async () => {
+  const all = [];
+  let cursor;
+  do {
+    const page = await fetchProductPage(cursor, 100);
+    all.push(...page.items);
+    cursor = page.next;
+  } while (cursor);
+  return all;
+};
+
+/**
+ * ✅ Tìm kiếm sản phẩm phía server (không phân biệt dấu tiếng Việt)
+ * @param {string} q từ khóa
+ * @param {number} [page] trang (bắt đầu từ 0)
+ * @param {number} [size] số sản phẩm mỗi trang
+ * @returns {Promise<{items: Array, total: number, page: number, size: number}>}
+ */
+export const searchProducts = async (q, page = 0, size) => {
+  try {
+    const res = await api.get(`${endpoint.PRODUCT}/search`, { params: { q, page, size } });
+    return res.data?.result || { items: [], total: 0, page, size };
+  } catch (err) {
+    console.error(`❌ Lỗi khi searchProducts(${q}):`, err);
+    throw err;
+  }
+};
+
+/**
+ * ✅ Lọc sản phẩm theo facet, kèm số đếm cho từng giá trị
+ * @param {Object} filters { q, category: [], brand: [], storage: [], color: [], price: [] }
+ * @param {number} [page]
+ * @param {number} [size]
+ * @returns {Promise<{items: Array, total: number, facets: Object}>}
+ */
+export const fetchProductFacets = async (filters = {}, page = 0, size) => {
+  try {
+    const res = await api.get(`${endpoint.PRODUCT}/facets`, {
+      params: { ...filters, page, size },
+      paramsSerializer: { indexes: null }, // brand=A&brand=B
+    });
+    return res.data?.result || { items: [], total: 0, facets: {} };
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchProductFacets:", err);
+    throw err;
+  }
+};
+
+/**
+ * ✅ Lấy danh sách sản phẩm nổi bật (server giữ sẵn snapshot, không query DB)
+ * @returns {Promise<Array>} danh sách ProductResponse
+ */
+export const fetchFeaturedProducts = async () => {
   try {
-    const res = await api.get(endpoint.PRODUCT);
+    const res = await api.get(`${endpoint.PRODUCT}/featured`);
     return res.data?.result || [];
   } catch (err) {
-    console.error("❌ Lỗi khi fetchAllProducts:", err);
+    console.error("❌ Lỗi khi fetchFeaturedProducts:", err);
     throw err;
   }
 };
@@ -0,0 +1,65 @@
+import api from "./index";
+import { endpoint } from "./endpoints.jsx";
+
+// ==============================
+// 📊 STATISTICS SERVICE (Admin)
+// Server tính bằng GROUP BY; from / to dạng "yyyy-MM-dd", bỏ trống = không giới hạn
+// ==============================
+
+/**
+ * ✅ Toàn bộ số liệu trang thống kê trong 1 request
+ * @returns {Promise<{summary: Object, byStatus: Array, topProducts: Array, monthly: Array}>}
+ */
+export const fetchStatistics = async ({ from, to, top } = {}) => {
+  try {
+    const res = await api.get(endpoint.STATISTICS, { params: { from, to, top } });
+    return res.data?.result || null;
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchStatistics:", err.response?.data || err.message);
+    throw err;
+  }
+};
+
+/** ✅ Tổng doanh thu, số đơn, số khách, giá trị đơn trung bình */
+export const fetchSalesSummary = async ({ from, to } = {}) => {
+  try {
+    const res = await api.get(`${endpoint.STATISTICS}/summary`, { params: { from, to } });
+    return res.data?.result || null;
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchSalesSummary:", err.response?.data || err.message);
+    throw err;
+  }
+};
+
+/** ✅ Số đơn theo trạng thái: [{ status, orders, revenue }] */
+export const fetchOrdersByStatus = async ({ from, to } = {}) => {
+  try {
+    const res = await api.get(`${endpoint.STATISTICS}/status`, { params: { from, to } });
+    return res.data?.result || [];
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchOrdersByStatus:", err.response?.data || err.message);
+    throw err;
+  }
+};
+
+/** ✅ Sản phẩm bán chạy: [{ productId, productName, quantity, revenue }] */
+export const fetchTopProducts = async ({ from, to, top } = {}) => {
+  try {
+    const res = await api.get(`${endpoint.STATISTICS}/products`, { params: { from, to, top } });
+    return res.data?.result || [];
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchTopProducts:", err.response?.data || err.message);
+    throw err;
+  }
+};
+
+/** ✅ Theo tháng: [{ month: "yyyy-MM", revenue, orders, newUsers }] */
+export const fetchMonthlySales = async ({ from, to } = {}) => {
+  try {
+    const res = await api.get(`${endpoint.STATISTICS}/monthly`, { params: { from, to } });
+    return res.data?.result || [];
+  } catch (err) {
+    console.error("❌ Lỗi khi fetchMonthlySales:", err.response?.data || err.message);
+    throw err;
+  }
+};
@@ -0,0 +1,10 @@
+package com.qnboke04.techadict.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// ✅ Bật @Scheduled cho các job nền (dọn Idempotency-Key hết hạn...)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
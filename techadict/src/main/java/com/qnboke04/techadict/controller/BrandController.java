@@ -3,8 +3,11 @@ package com.qnboke04.techadict.controller;
 import com.qnboke04.techadict.dto.request.ApiResponse;
 import com.qnboke04.techadict.entity.Brand;
 import com.qnboke04.techadict.service.BrandService;
+import com.qnboke04.techadict.service.CatalogVersionService;
+import com.qnboke04.techadict.service.ResourceVersion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,6 +18,7 @@ import java.util.List;
 public class BrandController {
 
     private final BrandService brandService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     public ApiResponse<Brand> create(@RequestBody Brand brand) {
@@ -24,14 +28,21 @@ public class BrandController {
     }
 
     @GetMapping
-    public ApiResponse<List<Brand>> getAll() {
+    public ApiResponse<List<Brand>> getAll(WebRequest request) {
+        if (catalogVersionService.brands().checkNotModified(request)) {
+            return null; // 304 Not Modified
+        }
         return ApiResponse.<List<Brand>>builder()
                 .result(brandService.getAll())
                 .build();
     }
 
     @GetMapping("/{id}")
-    public ApiResponse<Brand> getById(@PathVariable String id) {
+    public ApiResponse<Brand> getById(@PathVariable String id, WebRequest request) {
+        ResourceVersion version = catalogVersionService.brand(id);
+        if (version.exists() && version.checkNotModified(request)) {
+            return null; // 304 Not Modified
+        }
         return ApiResponse.<Brand>builder()
                 .result(brandService.getById(id))
                 .build();
@@ -0,0 +1,27 @@
+package com.qnboke04.techadict.controller;
+
+import com.qnboke04.techadict.dto.request.ApiResponse;
+import com.qnboke04.techadict.dto.response.CacheStatsResponse;
+import com.qnboke04.techadict.service.ProductDetailCache;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CacheController {
+
+    ProductDetailCache productDetailCache;
+
+    // 🔹 Hit / miss / eviction của cache chi tiết sản phẩm (để chọn kích thước cache)
+    @GetMapping("/products")
+    public ApiResponse<CacheStatsResponse> productCacheStats() {
+        return ApiResponse.<CacheStatsResponse>builder()
+                .result(productDetailCache.stats())
+                .build();
+    }
+}
@@ -3,8 +3,12 @@ package com.qnboke04.techadict.controller;
 import com.qnboke04.techadict.dto.request.ApiResponse;
 import com.qnboke04.techadict.dto.request.CartRequest;
 import com.qnboke04.techadict.dto.request.CartRemoveRequest;
+import com.qnboke04.techadict.dto.request.CheckoutRequest;
 import com.qnboke04.techadict.dto.response.CartResponse;
+import com.qnboke04.techadict.dto.response.OrderResponse;
+import com.qnboke04.techadict.enums.IdempotentOperation;
 import com.qnboke04.techadict.service.CartService;
+import com.qnboke04.techadict.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +23,7 @@ import static lombok.AccessLevel.PRIVATE;
 public class CartController {
 
     CartService cartService;
+    IdempotencyService idempotencyService;
 
     // ✅ Lấy giỏ hàng của người dùng
     @GetMapping("/{userId}")
@@ -73,4 +78,29 @@ public class CartController {
                 .message("Đã xóa toàn bộ giỏ hàng")
                 .build();
     }
+
+    // ✅ Đặt hàng từ giỏ: tạo đơn + giữ hàng + xóa item đã đặt trong 1 request, 1 transaction
+    // Gửi kèm header Idempotency-Key để thử lại an toàn như POST /orders
+    @PostMapping("/{userId}/checkout")
+    public ApiResponse<OrderResponse> checkout(
+            @PathVariable String userId,
+            @RequestBody CheckoutRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        try {
+            OrderResponse order = idempotencyKey == null
+                    ? cartService.checkout(userId, request)
+                    : idempotencyService.execute(IdempotentOperation.CART_CHECKOUT, userId, idempotencyKey, request,
+                            () -> cartService.checkout(userId, request));
+            return ApiResponse.<OrderResponse>builder()
+                    .result(order)
+                    .message("Đơn hàng đã được tạo thành công")
+                    .build();
+        } catch (RuntimeException e) {
+            return ApiResponse.<OrderResponse>builder()
+                    .code(400)
+                    .message("Lỗi khi tạo đơn hàng: " + e.getMessage())
+                    .build();
+        }
+    }
 }
@@ -3,10 +3,13 @@ package com.qnboke04.techadict.controller;
 import com.qnboke04.techadict.dto.request.ApiResponse;
 import com.qnboke04.techadict.entity.Category;
 import com.qnboke04.techadict.service.CategoryService;
+import com.qnboke04.techadict.service.CatalogVersionService;
+import com.qnboke04.techadict.service.ResourceVersion;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,6 +21,7 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersionService catalogVersionService;
 
     // 🔹 Tạo mới category
     @PostMapping
@@ -29,7 +33,10 @@ public class CategoryController {
 
     // 🔹 Lấy tất cả
     @GetMapping
-    public ApiResponse<List<Category>> getAll() {
+    public ApiResponse<List<Category>> getAll(WebRequest request) {
+        if (catalogVersionService.categories().checkNotModified(request)) {
+            return null; // 304 Not Modified
+        }
         return ApiResponse.<List<Category>>builder()
                 .result(categoryService.getAll())
                 .build();
@@ -37,7 +44,11 @@ public class CategoryController {
 
     // 🔹 Lấy theo ID
     @GetMapping("/{id}")
-    public ApiResponse<Category> getById(@PathVariable String id) {
+    public ApiResponse<Category> getById(@PathVariable String id, WebRequest request) {
+        ResourceVersion version = catalogVersionService.category(id);
+        if (version.exists() && version.checkNotModified(request)) {
+            return null; // 304 Not Modified
+        }
         return ApiResponse.<Category>builder()
                 .result(categoryService.getById(id))
                 .build();
@@ -0,0 +1,45 @@
+package com.qnboke04.techadict.controller;
+
+import com.qnboke04.techadict.dto.request.ApiResponse;
+import com.qnboke04.techadict.dto.response.HotVariantResponse;
+import com.qnboke04.techadict.service.InventoryLedger;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/admin/inventory/hot")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InventoryController {
+
+    InventoryLedger inventoryLedger;
+
+    // 🔹 Các variant đang giữ hàng trong bộ nhớ và số tồn còn lại
+    @GetMapping
+    public ApiResponse<List<HotVariantResponse>> list() {
+        return ApiResponse.<List<HotVariantResponse>>builder()
+                .result(inventoryLedger.list())
+                .build();
+    }
+
+    // 🔹 Bật chế độ flash sale cho variant
+    @PostMapping("/{variantId}")
+    public ApiResponse<HotVariantResponse> enable(@PathVariable String variantId) {
+        return ApiResponse.<HotVariantResponse>builder()
+                .result(inventoryLedger.enable(variantId))
+                .build();
+    }
+
+    // 🔹 Tắt: đơn mới quay lại UPDATE có điều kiện trên DB
+    @DeleteMapping("/{variantId}")
+    public ApiResponse<HotVariantResponse> disable(@PathVariable String variantId) {
+        return ApiResponse.<HotVariantResponse>builder()
+                .result(inventoryLedger.disable(variantId))
+                .build();
+    }
+}
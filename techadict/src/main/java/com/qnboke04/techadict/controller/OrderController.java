@@ -1,13 +1,28 @@
 package com.qnboke04.techadict.controller;
 
 import com.qnboke04.techadict.dto.request.ApiResponse;
+import com.qnboke04.techadict.dto.request.BulkStatusRequest;
+import com.qnboke04.techadict.dto.request.OrderFilter;
 import com.qnboke04.techadict.dto.request.OrderRequest;
+import com.qnboke04.techadict.dto.response.BulkStatusResponse;
+import com.qnboke04.techadict.dto.response.CursorPage;
 import com.qnboke04.techadict.dto.response.OrderResponse;
+import com.qnboke04.techadict.dto.response.OrderSummaryResponse;
+import com.qnboke04.techadict.enums.IdempotentOperation;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import com.qnboke04.techadict.exception.AppException;
+import com.qnboke04.techadict.service.IdempotencyService;
+import com.qnboke04.techadict.service.OrderIntakeService;
 import com.qnboke04.techadict.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static lombok.AccessLevel.PRIVATE;
@@ -20,15 +35,25 @@ import static lombok.AccessLevel.PRIVATE;
 public class OrderController {
 
     OrderService orderService;
+    IdempotencyService idempotencyService;
+    OrderIntakeService orderIntakeService;
 
     // ===========================
     // ✅ 1. Tạo đơn hàng mới
     // ===========================
+    // Gửi kèm header Idempotency-Key để thử lại an toàn: cùng key → trả lại đúng đơn đã tạo
     @PostMapping
-    public ApiResponse<OrderResponse> create(@RequestBody OrderRequest request) {
+    public ApiResponse<OrderResponse> create(
+            @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
         try {
+            OrderResponse order = idempotencyKey == null
+                    ? orderService.create(request)
+                    : idempotencyService.execute(IdempotentOperation.ORDER_CREATE, request.getUserId(), idempotencyKey,
+                            request, () -> orderService.create(request));
             return ApiResponse.<OrderResponse>builder()
-                    .result(orderService.create(request))
+                    .result(order)
                     .message("Đơn hàng đã được tạo thành công")
                     .build();
         } catch (RuntimeException e) {
@@ -40,23 +65,75 @@ public class OrderController {
     }
 
     // ===========================
-    // ✅ 2. Admin: lấy tất cả đơn hàng
+    // ✅ 1b. Nhận đơn vào hàng đợi (POST /orders?mode=async)
+    // ===========================
+    // Trả 202 kèm id đơn ngay sau khi ghi hàng đợi; theo dõi bằng GET /orders/{id}
+    // (PROCESSING → PENDING khi tạo xong, hoặc lỗi nếu tạo thất bại)
+    @PostMapping(params = "mode=async")
+    public ResponseEntity<ApiResponse<OrderResponse>> submit(
+            @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        try {
+            OrderResponse accepted = idempotencyKey == null
+                    ? orderIntakeService.submit(request)
+                    : idempotencyService.execute(IdempotentOperation.ORDER_SUBMIT, request.getUserId(), idempotencyKey,
+                            request, () -> orderIntakeService.submit(request));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.<OrderResponse>builder()
+                    .result(accepted)
+                    .message("Đơn hàng đã được tiếp nhận, đang xử lý")
+                    .build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.<OrderResponse>builder()
+                    .code(400)
+                    .message("Lỗi khi tạo đơn hàng: " + e.getMessage())
+                    .build());
+        }
+    }
+
+    // ===========================
+    // ✅ 2. Admin: danh sách đơn hàng (lọc + phân trang keyset, mới nhất trước)
     // ===========================
+    // from / to là ngày (yyyy-MM-dd), to tính trọn ngày; trang sau gọi lại với cursor = next
     @GetMapping
-    public ApiResponse<List<OrderResponse>> getAll() {
+    public ApiResponse<List<OrderResponse>> getAll(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        OrderFilter filter = OrderFilter.builder()
+                .status(status)
+                .paymentStatus(paymentStatus)
+                .userId(userId)
+                .from(from == null ? null : from.atStartOfDay())
+                .to(to == null ? null : to.plusDays(1).atStartOfDay())
+                .build();
+        CursorPage<OrderResponse> page = orderService.getPage(filter, cursor, size);
         return ApiResponse.<List<OrderResponse>>builder()
-                .result(orderService.getAll())
-                .message("Danh sách tất cả đơn hàng")
+                .result(page.getItems())
+                .next(page.getNext())
+                .message("Danh sách đơn hàng")
                 .build();
     }
 
     // ===========================
     // ✅ 3. Lấy đơn hàng theo user
     // ===========================
+    // Tóm tắt từng đơn (không kèm items), mới nhất trước; trang sau gọi lại với cursor = next
     @GetMapping("/user/{userId}")
-    public ApiResponse<List<OrderResponse>> getByUser(@PathVariable String userId) {
-        return ApiResponse.<List<OrderResponse>>builder()
-                .result(orderService.getByUser(userId))
+    public ApiResponse<List<OrderSummaryResponse>> getByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        CursorPage<OrderSummaryResponse> page = orderService.getHistory(userId, cursor, size);
+        return ApiResponse.<List<OrderSummaryResponse>>builder()
+                .result(page.getItems())
+                .next(page.getNext())
                 .message("Danh sách đơn hàng của user " + userId)
                 .build();
     }
@@ -66,10 +143,17 @@ public class OrderController {
     // ===========================
     @GetMapping("/{orderId}")
     public ApiResponse<OrderResponse> getById(@PathVariable String orderId) {
-        return ApiResponse.<OrderResponse>builder()
-                .result(orderService.getById(orderId))
-                .message("Chi tiết đơn hàng " + orderId)
-                .build();
+        try {
+            return ApiResponse.<OrderResponse>builder()
+                    .result(orderService.getById(orderId))
+                    .message("Chi tiết đơn hàng " + orderId)
+                    .build();
+        } catch (RuntimeException e) {
+            return ApiResponse.<OrderResponse>builder()
+                    .code(400)
+                    .message(e.getMessage())
+                    .build();
+        }
     }
 
     // ===========================
@@ -86,6 +170,28 @@ public class OrderController {
                 .build();
     }
 
+    // ===========================
+    // ✅ 5b. Admin / kho: chuyển trạng thái nhiều đơn một lần
+    // ===========================
+    // Trả kết quả theo từng đơn (UPDATED / UNCHANGED / NOT_FOUND / INVALID_TRANSITION / CONFLICT)
+    @PostMapping("/status:bulk")
+    public ApiResponse<BulkStatusResponse> updateStatusBulk(@RequestBody BulkStatusRequest request) {
+        try {
+            BulkStatusResponse response = orderService.updateStatusBulk(request);
+            return ApiResponse.<BulkStatusResponse>builder()
+                    .result(response)
+                    .message("Đã cập nhật " + response.getUpdated() + "/" + response.getRequested() + " đơn hàng")
+                    .build();
+        } catch (AppException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ApiResponse.<BulkStatusResponse>builder()
+                    .code(400)
+                    .message(e.getMessage())
+                    .build();
+        }
+    }
+
     // ===========================
     // ✅ 6. Admin: cập nhật payment
     // ===========================
@@ -113,6 +219,9 @@ public class OrderController {
                     .result(orderService.cancelOrder(orderId, userId))
                     .message("Đơn hàng đã được hủy thành công")
                     .build();
+        } catch (AppException e) {
+            // Xung đột trạng thái / ghi đồng thời → 409 qua GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             return ApiResponse.<OrderResponse>builder()
                     .code(400)
@@ -0,0 +1,36 @@
+package com.qnboke04.techadict.controller;
+
+import com.qnboke04.techadict.dto.request.ApiResponse;
+import com.qnboke04.techadict.dto.response.OrderExpiryRunResponse;
+import com.qnboke04.techadict.dto.response.OrderExpiryStatsResponse;
+import com.qnboke04.techadict.service.OrderExpirySweeper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/admin/orders/expiry")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OrderExpiryController {
+
+    OrderExpirySweeper orderExpirySweeper;
+
+    // 🔹 Số đơn đã hủy / số lượng đã hoàn kho từ khi khởi động và chi tiết lần chạy gần nhất
+    @GetMapping
+    public ApiResponse<OrderExpiryStatsResponse> stats() {
+        return ApiResponse.<OrderExpiryStatsResponse>builder()
+                .result(orderExpirySweeper.stats())
+                .build();
+    }
+
+    // 🔹 Chạy ngay (không chờ lịch), trả về kết quả lần chạy
+    @PostMapping("/run")
+    public ApiResponse<OrderExpiryRunResponse> run() {
+        return ApiResponse.<OrderExpiryRunResponse>builder()
+                .result(orderExpirySweeper.sweep())
+                .build();
+    }
+}
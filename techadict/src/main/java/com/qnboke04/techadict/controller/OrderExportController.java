@@ -0,0 +1,45 @@
+package com.qnboke04.techadict.controller;
+
+import com.qnboke04.techadict.enums.ExportFormat;
+import com.qnboke04.techadict.service.OrderExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+import static lombok.AccessLevel.PRIVATE;
+
+@RestController
+@RequestMapping("/admin/orders")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.CONTENT_DISPOSITION)
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class OrderExportController {
+
+    OrderExportService orderExportService;
+
+    // ✅ Tải toàn bộ đơn hàng (mỗi dòng đơn 1 dòng), ghi dần ra response — format = csv (mặc định) | ndjson
+    // from / to: yyyy-MM-dd, tính trọn ngày; bỏ trống = không giới hạn
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(orderExportService.fileName(exportFormat, from, to))
+                        .build()
+                        .toString())
+                .body(orderExportService.export(exportFormat, from, to));
+    }
+}
@@ -2,14 +2,30 @@ package com.qnboke04.techadict.controller;
 
 import com.qnboke04.techadict.dto.request.ApiResponse;
 import com.qnboke04.techadict.dto.request.ProductRequest;
+import com.qnboke04.techadict.dto.response.CatalogItemResponse;
+import com.qnboke04.techadict.dto.response.CursorPage;
+import com.qnboke04.techadict.dto.response.ProductCardResponse;
 import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.dto.response.ProductSearchResponse;
+import com.qnboke04.techadict.enums.ProductFacet;
+import com.qnboke04.techadict.enums.ProductSort;
+import com.qnboke04.techadict.service.CatalogService;
+import com.qnboke04.techadict.service.CatalogVersionService;
+import com.qnboke04.techadict.service.FeaturedProductsSnapshot;
+import com.qnboke04.techadict.service.ProductDetailCache;
+import com.qnboke04.techadict.service.ProductSearchService;
 import com.qnboke04.techadict.service.ProductService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping("products")
@@ -17,6 +33,10 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ProductController {
     ProductService productService;
+    ProductSearchService productSearchService;
+    CatalogService catalogService;
+    CatalogVersionService catalogVersionService;
+    FeaturedProductsSnapshot featuredProductsSnapshot;
 
     @PostMapping
     ApiResponse<ProductResponse> createProduct (@RequestBody ProductRequest productRequest) {
@@ -25,17 +45,106 @@ public class ProductController {
                 .build();
     }
 
+    // ✅ sort = newest (mặc định) | price_asc | price_desc
     @GetMapping
-    ApiResponse<List<ProductResponse>> getAllProducts() {
+    ApiResponse<List<ProductResponse>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            WebRequest request
+    ) {
+        ProductSort order = ProductSort.from(sort);
+        // ✅ Client đã có bản mới nhất → 304, không query danh sách / không map / không serialize
+        if (catalogVersionService.products().checkNotModified(request, order, cursor, size)) {
+            return null;
+        }
+        CursorPage<ProductResponse> page = productService.getPage(cursor, size, order);
+        return ApiResponse.<List<ProductResponse>>builder()
+                .result(page.getItems())
+                .next(page.getNext())
+                .build();
+    }
+
+    // ✅ /products?view=card: chỉ id, tên, ảnh đầu, giá thấp nhất, featured (view mặc định = detail)
+    @GetMapping(params = "view=card")
+    ApiResponse<List<ProductCardResponse>> getProductCards(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request
+    ) {
+        if (catalogVersionService.products().checkNotModified(request, "card", cursor, size)) {
+            return null;
+        }
+        CursorPage<ProductCardResponse> page = productService.getCardPage(cursor, size);
+        return ApiResponse.<List<ProductCardResponse>>builder()
+                .result(page.getItems())
+                .next(page.getNext())
+                .build();
+    }
+
+    // ✅ Sản phẩm nổi bật cho trang chủ: đọc thẳng từ snapshot trong bộ nhớ, không query DB
+    @GetMapping("/featured")
+    ApiResponse<List<ProductResponse>> getFeaturedProducts() {
         return ApiResponse.<List<ProductResponse>>builder()
-                .result(productService.getAll())
+                .result(featuredProductsSnapshot.get())
+                .build();
+    }
+
+    // ✅ Danh sách catalog đọc từ read model catalog_view (giá min/max, tồn kho đã tính sẵn)
+    @GetMapping("/catalog")
+    ApiResponse<List<CatalogItemResponse>> getCatalog(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        CursorPage<CatalogItemResponse> page = catalogService.getPage(cursor, size);
+        return ApiResponse.<List<CatalogItemResponse>>builder()
+                .result(page.getItems())
+                .next(page.getNext())
+                .build();
+    }
+
+    @GetMapping("/search")
+    ApiResponse<ProductSearchResponse> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size
+    ) {
+        return ApiResponse.<ProductSearchResponse>builder()
+                .result(productSearchService.search(query, page, size))
+                .build();
+    }
+
+    // ✅ Lọc theo facet: /products/facets?brand=Apple&storage=256GB&storage=512GB&price=10M_20M
+    @GetMapping("/facets")
+    ApiResponse<ProductSearchResponse> filterProducts(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> storage,
+            @RequestParam(required = false) List<String> color,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size
+    ) {
+        Map<ProductFacet, Set<String>> filters = new EnumMap<>(ProductFacet.class);
+        putFilter(filters, ProductFacet.CATEGORY, category);
+        putFilter(filters, ProductFacet.BRAND, brand);
+        putFilter(filters, ProductFacet.STORAGE, storage);
+        putFilter(filters, ProductFacet.COLOR, color);
+        putFilter(filters, ProductFacet.PRICE, price);
+        return ApiResponse.<ProductSearchResponse>builder()
+                .result(productSearchService.facetedSearch(query, filters, page, size))
                 .build();
     }
 
     @GetMapping("/{id}")
-    ApiResponse<ProductResponse> getProductById(@PathVariable("id") String id) {
+    ApiResponse<ProductResponse> getProductById(@PathVariable("id") String id, WebRequest request) {
+        ProductDetailCache.Detail detail = productService.getDetail(id);
+        if (detail.version().checkNotModified(request)) {
+            return null;
+        }
         return ApiResponse.<ProductResponse>builder()
-                .result(productService.getById(id))
+                .result(detail.product())
                 .build();
     }
 
@@ -56,4 +165,10 @@ public class ProductController {
                 .result("Product with ID " + id + " deleted successfully!")
                 .build();
     }
+
+    private static void putFilter(Map<ProductFacet, Set<String>> filters, ProductFacet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, new HashSet<>(values));
+        }
+    }
 }
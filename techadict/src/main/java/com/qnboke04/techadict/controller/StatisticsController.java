@@ -0,0 +1,95 @@
+package com.qnboke04.techadict.controller;
+
+import com.qnboke04.techadict.dto.request.ApiResponse;
+import com.qnboke04.techadict.dto.response.*;
+import com.qnboke04.techadict.service.SalesRollup;
+import com.qnboke04.techadict.service.StatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+
+// from / to: yyyy-MM-dd, tính trọn ngày; bỏ trống = không giới hạn
+@RestController
+@RequestMapping("/admin/statistics")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class StatisticsController {
+
+    StatisticsService statisticsService;
+    SalesRollup salesRollup;
+
+    // ✅ Toàn bộ số liệu của trang thống kê trong 1 request
+    @GetMapping
+    public ApiResponse<SalesStatisticsResponse> getAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer top
+    ) {
+        return ApiResponse.<SalesStatisticsResponse>builder()
+                .result(statisticsService.getAll(from, to, top))
+                .build();
+    }
+
+    // ✅ Tổng doanh thu, số đơn, số khách, giá trị đơn trung bình
+    @GetMapping("/summary")
+    public ApiResponse<SalesSummaryResponse> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ApiResponse.<SalesSummaryResponse>builder()
+                .result(statisticsService.getSummary(from, to))
+                .build();
+    }
+
+    // ✅ Số đơn theo trạng thái
+    @GetMapping("/status")
+    public ApiResponse<List<StatusCountResponse>> getByStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ApiResponse.<List<StatusCountResponse>>builder()
+                .result(statisticsService.getByStatus(from, to))
+                .build();
+    }
+
+    // ✅ Sản phẩm bán chạy theo doanh thu
+    @GetMapping("/products")
+    public ApiResponse<List<ProductSalesResponse>> getTopProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer top
+    ) {
+        return ApiResponse.<List<ProductSalesResponse>>builder()
+                .result(statisticsService.getTopProducts(from, to, top))
+                .build();
+    }
+
+    // ✅ Doanh thu / số đơn / người dùng mới theo tháng
+    @GetMapping("/monthly")
+    public ApiResponse<List<MonthlySalesResponse>> getMonthly(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ApiResponse.<List<MonthlySalesResponse>>builder()
+                .result(statisticsService.getMonthly(from, to))
+                .build();
+    }
+
+    // ✅ Dựng lại rollup doanh số theo ngày từ đơn hàng (backfill / sửa lệch); bỏ trống = toàn bộ
+    @PostMapping("/rollup/rebuild")
+    public ApiResponse<RollupRebuildResponse> rebuildRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ApiResponse.<RollupRebuildResponse>builder()
+                .result(salesRollup.rebuild(from, to))
+                .build();
+    }
+}
@@ -14,4 +14,5 @@ public class ApiResponse <T> {
     private int code = 1000;
     private String message;
     private T result;
+    private String next; // cursor trang kế tiếp (chỉ có với API phân trang)
 }
@@ -0,0 +1,15 @@
+package com.qnboke04.techadict.dto.request;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+    private List<String> orderIds;   // tối đa OrderService.MAX_BULK_STATUS id mỗi yêu cầu
+    private OrderStatus status;      // trạng thái đích (không nhận CANCELED — hủy từng đơn để hoàn kho)
+}
@@ -0,0 +1,15 @@
+package com.qnboke04.techadict.dto.request;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequest {
+    private String addressId;              // nếu chọn địa chỉ có sẵn
+    private ShippingInfo shippingInfo;     // nếu nhập mới trực tiếp
+    private List<String> variantIds;       // các sản phẩm được chọn trong giỏ; bỏ trống = cả giỏ
+}
@@ -0,0 +1,20 @@
+package com.qnboke04.techadict.dto.request;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// ✅ Bộ lọc danh sách đơn (Admin); trường null = không lọc
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFilter {
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String userId;
+    private LocalDateTime from;   // created_at >= from
+    private LocalDateTime to;     // created_at < to
+}
@@ -1,5 +1,6 @@
 package com.qnboke04.techadict.dto.request;
 
+import com.qnboke04.techadict.enums.PaymentMethod;
 import lombok.*;
 import java.util.List;
 
@@ -12,4 +13,5 @@ public class OrderRequest {
     private String addressId;              // nếu chọn địa chỉ có sẵn
     private ShippingInfo shippingInfo;     // nếu nhập mới trực tiếp
     private List<OrderItemRequest> items;
+    private PaymentMethod paymentMethod;   // bỏ trống = COD; BANK chưa thanh toán quá hạn sẽ bị hủy tự động
 }
@@ -0,0 +1,20 @@
+package com.qnboke04.techadict.dto.response;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkStatusResponse {
+    private OrderStatus status;
+    private int requested;
+    private int updated;
+    private List<BulkStatusResult> results; // cùng thứ tự với orderIds gửi lên
+}
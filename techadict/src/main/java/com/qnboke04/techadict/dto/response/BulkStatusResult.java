@@ -0,0 +1,20 @@
+package com.qnboke04.techadict.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.qnboke04.techadict.enums.BulkStatusOutcome;
+import com.qnboke04.techadict.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkStatusResult {
+    private String orderId;
+    private BulkStatusOutcome outcome;
+    private OrderStatus previousStatus; // trạng thái đọc được lúc xử lý (không có khi NOT_FOUND)
+}
@@ -0,0 +1,31 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogItemResponse {
+    private String id;
+    private String name;
+    private String description;
+    private String categoryName;
+    private String brandName;
+    private Boolean featured;
+    private BigDecimal originPrice;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer totalStock;
+    private Integer variantCount;
+    private String thumbnail;
+    private List<String> images;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetCount {
+    private String value;  // VD: "Apple", "256GB"
+    private int count;     // số sản phẩm khớp nếu chọn thêm giá trị này
+}
@@ -0,0 +1,18 @@
+package com.qnboke04.techadict.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HotVariantResponse {
+    private String variantId;
+    private boolean enabled;
+    private Integer available; // số tồn còn nhận giữ được trong ledger
+}
@@ -0,0 +1,19 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlySalesResponse {
+    private String month;       // yyyy-MM
+    private BigDecimal revenue;
+    private Long orders;
+    private Long newUsers;
+}
@@ -0,0 +1,25 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderExpiryRunResponse {
+    private LocalDateTime startedAt;
+    private long durationMillis;
+    private LocalDateTime cutoff;                 // hủy đơn tạo trước mốc này
+    private int pages;                            // số transaction (mỗi trang 1 transaction)
+    private int scanned;                          // số đơn quá hạn đã đọc
+    private int canceled;
+    private int conflicts;                        // đơn vừa được thanh toán / đổi ở nơi khác → bỏ qua, lần sau xét lại
+    private long releasedUnits;                   // tổng số lượng đã hoàn kho
+    private Map<String, Long> releasedByVariant;  // variantId → số lượng đã hoàn
+}
@@ -0,0 +1,21 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderExpiryStatsResponse {
+    private Duration ttl;              // đơn BANK chờ thanh toán quá thời gian này bị hủy
+    private int batchSize;
+    private long runs;                 // số lần chạy kể từ khi khởi động
+    private long totalCanceled;
+    private long totalReleasedUnits;
+    private OrderExpiryRunResponse lastRun;
+}
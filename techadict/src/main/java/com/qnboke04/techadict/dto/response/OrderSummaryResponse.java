@@ -0,0 +1,27 @@
+package com.qnboke04.techadict.dto.response;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentMethod;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// ✅ 1 dòng trong lịch sử đơn hàng: không kèm items / địa chỉ (xem chi tiết qua GET /orders/{id})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummaryResponse {
+    private String id;
+    private LocalDateTime createdAt;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Long itemCount;          // tổng số lượng sản phẩm trong đơn
+    private PaymentMethod paymentMethod;
+    private PaymentStatus paymentStatus;
+}
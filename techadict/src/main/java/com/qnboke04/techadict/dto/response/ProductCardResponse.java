@@ -0,0 +1,23 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// ✅ View "card" cho danh sách sản phẩm: chỉ các cột thẻ sản phẩm cần, không có description / variants
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCardResponse {
+    private String id;
+    private String name;
+    private String image;        // ảnh đại diện
+    private BigDecimal minPrice; // giá variant thấp nhất, không có variant thì lấy origin_price
+    private boolean featured;
+    private LocalDateTime createdAt;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -21,6 +22,9 @@ public class ProductResponse {
     private String categoryName;
     private String brandName;
     private Boolean featured;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
     private List<String> images; // Danh sách ảnh sản phẩm (nếu có)
     private List<VariantResponse> variants; // Danh sách phiên bản sản phẩm
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,24 @@
+package com.qnboke04.techadict.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.qnboke04.techadict.enums.ProductFacet;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSearchResponse {
+    private List<ProductResponse> items;
+    private long total;   // tổng số sản phẩm khớp
+    private int page;
+    private int size;
+    private Map<ProductFacet, List<FacetCount>> facets; // chỉ có với API lọc theo facet
+}
@@ -0,0 +1,19 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupRebuildResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private int statusRows;   // số dòng sales_daily_status đã dựng
+    private int variantRows;  // số dòng sales_daily_variant đã dựng
+}
@@ -0,0 +1,20 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ✅ Toàn bộ số liệu của trang thống kê trong 1 response
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesStatisticsResponse {
+    private SalesSummaryResponse summary;
+    private List<StatusCountResponse> byStatus;
+    private List<ProductSalesResponse> topProducts;
+    private List<MonthlySalesResponse> monthly;
+}
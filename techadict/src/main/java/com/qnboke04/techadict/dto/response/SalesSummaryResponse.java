@@ -0,0 +1,21 @@
+package com.qnboke04.techadict.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// ✅ Tổng quan doanh số trong khoảng thời gian (không tính đơn đã hủy)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesSummaryResponse {
+    private BigDecimal totalRevenue;
+    private BigDecimal paidRevenue; // phần doanh thu của đơn đã thanh toán thành công
+    private Long totalOrders;
+    private Long uniqueCustomers;
+    private BigDecimal averageOrderValue;
+}
@@ -0,0 +1,19 @@
+package com.qnboke04.techadict.dto.response;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusCountResponse {
+    private OrderStatus status;
+    private Long orders;
+    private BigDecimal revenue;
+}
@@ -10,7 +10,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Address extends BaseEntity {
+public class Address extends AssignedIdEntity {
 
     @Id
     private String id;
@@ -24,5 +24,4 @@ public class Address extends BaseEntity {
     private Boolean isDefault;
     @Column(name = "user_id")
     private String userId;
-
-}
\ No newline at end of file
+}
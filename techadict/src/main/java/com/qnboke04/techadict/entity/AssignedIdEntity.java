@@ -0,0 +1,20 @@
+package com.qnboke04.techadict.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.MappedSuperclass;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * ✅ Entity có id gán sẵn trước khi lưu (IdGenerator, UUID, id nghiệp vụ).
+ * Spring Data mặc định coi id khác null là bản ghi cũ và gọi merge — SELECT trước mỗi INSERT, phá vỡ JDBC batching.
+ * Ở đây bản ghi là mới khi createdAt chưa có (chưa qua @PrePersist) → gọi persist.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity extends BaseEntity implements Persistable<String> {
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return getCreatedAt() == null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.qnboke04.techadict.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ✅ Read model phẳng của catalog: 1 dòng / sản phẩm, đã tính sẵn giá min/max,
+ * tổng tồn kho, danh sách ảnh và tên brand/category. Chỉ CatalogProjector được ghi vào bảng này.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_view",
+        indexes = @Index(name = "idx_catalog_view_created_at_id", columnList = "created_at, id"))
+public class CatalogView {
+    @Id
+    private String id; // = productId
+
+    private String name;
+    @Column(length = 2000)
+    private String description;
+    private String categoryName;
+    private String brandName;
+    private boolean featured;
+
+    private BigDecimal originPrice;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private int totalStock;
+    private int variantCount;
+
+    private String thumbnail;
+    @Convert(converter = StringListJsonConverter.class)
+    @Column(length = 4000)
+    private List<String> images;
+
+    // Thời điểm tạo của sản phẩm gốc (khóa phân trang), không phải của dòng projection
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "projected_at")
+    private LocalDateTime projectedAt;
+}
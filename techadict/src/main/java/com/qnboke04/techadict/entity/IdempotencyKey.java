@@ -0,0 +1,37 @@
+package com.qnboke04.techadict.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ Kết quả đã ghi nhận cho một Idempotency-Key (POST /orders).
+ * Dòng được chèn trước khi tạo đơn, trong cùng transaction: khóa chính chặn bản sao đồng thời
+ * ở instance khác, và đơn hàng + key cùng commit hoặc cùng rollback.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyKey extends AssignedIdEntity {
+    @Id
+    @Column(length = 150)
+    private String id; // endpoint + ":" + userId + ":" + giá trị header
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Lob
+    private String response; // OrderResponse dạng JSON
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
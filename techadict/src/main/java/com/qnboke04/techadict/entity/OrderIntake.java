@@ -0,0 +1,42 @@
+package com.qnboke04.techadict.entity;
+
+import com.qnboke04.techadict.enums.IntakeStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * ✅ Đơn hàng đã nhận nhưng chưa tạo (POST /orders?mode=async).
+ * id chính là id của đơn sẽ được tạo, nên client dùng ngay để hỏi trạng thái.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_intake",
+        indexes = @Index(name = "idx_order_intake_status_created_at", columnList = "status, created_at"))
+public class OrderIntake extends AssignedIdEntity {
+    @Id
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // OrderRequest dạng JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private IntakeStatus status;
+
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy; // worker đang xử lý
+
+    @Column(nullable = false)
+    private int attempts; // số lần đã thử lại do lỗi tạm thời (DB bận, deadlock, mất kết nối)
+
+    @Column(length = 500)
+    private String error;
+}
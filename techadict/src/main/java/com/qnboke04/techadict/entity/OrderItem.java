@@ -10,8 +10,9 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "order_items")
-public class OrderItem extends BaseEntity {
+@Table(name = "order_items",
+        indexes = @Index(name = "idx_order_items_stock_pending", columnList = "stock_pending"))
+public class OrderItem extends AssignedIdEntity {
 
     @Id
     private String id;
@@ -37,4 +38,8 @@ public class OrderItem extends BaseEntity {
     @JoinColumn(name = "variant_id", nullable = false)
     private ProductVariants variant;
 
+    // ✅ true = hàng đã giữ trong InventoryLedger nhưng chưa trừ vào product_variants.quantity
+    // Commit cùng đơn hàng nên khởi động lại sau crash vẫn biết còn phần nào chưa ghi xuống DB
+    @Column(name = "stock_pending")
+    private Boolean stockPending;
 }
@@ -13,8 +13,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "orders")
-public class Orders extends BaseEntity {
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at")
+})
+public class Orders extends AssignedIdEntity {
 
     @Id
     private String id;
@@ -41,4 +45,9 @@ public class Orders extends BaseEntity {
     // ✅ 1 Order có 1 Payment
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private Payment payment;
-}
\ No newline at end of file
+
+    // ✅ Khóa lạc quan: mỗi lần ghi tăng version, ghi đè lên bản đã cũ → OptimisticLockingFailureException
+    @Version
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,45 @@
+package com.qnboke04.techadict.entity;
+
+import com.qnboke04.techadict.enums.OrderEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ✅ Sự kiện chờ phát ra ngoài, ghi cùng transaction với thay đổi của đơn hàng:
+ * đơn commit thì sự kiện chắc chắn có, đơn rollback thì sự kiện cũng mất.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_published_created", columnList = "published_at, created_at, id"))
+public class OutboxEvent extends AssignedIdEntity {
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 40, nullable = false)
+    private OrderEventType type;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId; // orderId
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // OrderEvent dạng JSON
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Payload không đọc được → cách ly (không phát, không chặn các sự kiện sau), chờ xử lý tay
+    @Column(name = "quarantined_at")
+    private LocalDateTime quarantinedAt;
+
+    @Column(length = 500)
+    private String error;
+}
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Payment extends BaseEntity {
+public class Payment extends AssignedIdEntity {
 
     @Id
     private String id;
@@ -31,4 +31,9 @@ public class Payment extends BaseEntity {
     @OneToOne
     @JoinColumn(name = "order_id", unique = true)
     private Orders order;
+
+    // ✅ Hai người cùng sửa một payment: người ghi sau nhận OptimisticLockingFailureException thay vì ghi đè
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
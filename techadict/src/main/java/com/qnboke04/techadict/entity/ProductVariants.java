@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_product_variants_updated_at", columnList = "updated_at"))
 public class ProductVariants extends BaseEntity {
 
     @Id
@@ -23,6 +24,15 @@ public class ProductVariants extends BaseEntity {
     private Integer quantity;
     private String imageUrl;
 
+    // ✅ Admin bật cho SKU flash sale: giữ hàng qua InventoryLedger trong bộ nhớ thay vì UPDATE từng đơn
+    @Column(name = "hot_reservation")
+    private Boolean hotReservation;
+
+    // ✅ Khóa lạc quan khi admin sửa variant; các câu UPDATE hàng loạt (giữ / trả hàng) tự tăng version
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // ✅ Mỗi variant thuộc về một product
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
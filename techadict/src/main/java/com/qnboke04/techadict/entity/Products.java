@@ -14,6 +14,11 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_products_min_price_id", columnList = "min_price, id")
+})
 public class Products extends BaseEntity{
     @Id
     private String id;
@@ -22,6 +27,11 @@ public class Products extends BaseEntity{
     private BigDecimal origin_price;
     private Integer quantity;
     private boolean featured;
+    // Khoảng giá tính từ ProductVariants.price (không có variant → origin_price), do ProductService duy trì
+    @Column(name = "min_price")
+    private BigDecimal minPrice;
+    @Column(name = "max_price")
+    private BigDecimal maxPrice;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
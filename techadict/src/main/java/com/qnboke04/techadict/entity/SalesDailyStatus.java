@@ -0,0 +1,49 @@
+package com.qnboke04.techadict.entity;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ✅ Rollup theo ngày × trạng thái đơn: số đơn, doanh thu, doanh thu đã thanh toán.
+ * Được cộng dồn (upsert) trong cùng transaction với thay đổi của đơn — xem SalesRollup.
+ *
+ * Mỗi (ngày, trạng thái) chia thành nhiều slot để các đơn đặt cùng lúc không tranh nhau một dòng;
+ * số liệu của một ngày = tổng các slot. id = "yyyy-MM-dd|STATUS|slot".
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sales_daily_status",
+        indexes = @Index(name = "idx_sales_daily_status_date", columnList = "sales_date, status"))
+public class SalesDailyStatus {
+    @Id
+    private String id;
+
+    // Ngày đặt đơn (orders.created_at)
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Integer slot;
+
+    @Column(nullable = false)
+    private Long orders;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal revenue;
+
+    // Phần doanh thu của các đơn có payment SUCCESS
+    @Column(name = "paid_revenue", nullable = false, precision = 17, scale = 2)
+    private BigDecimal paidRevenue;
+}
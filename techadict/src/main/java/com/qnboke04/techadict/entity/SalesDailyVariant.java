@@ -0,0 +1,47 @@
+package com.qnboke04.techadict.entity;
+
+import com.qnboke04.techadict.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ✅ Rollup theo ngày × variant × trạng thái đơn: số lượng bán và doanh thu của các dòng đơn.
+ * Chia slot giống SalesDailyStatus; id = "yyyy-MM-dd|variantId|STATUS|slot".
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sales_daily_variant",
+        indexes = @Index(name = "idx_sales_daily_variant_date", columnList = "sales_date, product_id"))
+public class SalesDailyVariant {
+    @Id
+    private String id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "variant_id", nullable = false)
+    private String variantId;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Integer slot;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal revenue;
+}
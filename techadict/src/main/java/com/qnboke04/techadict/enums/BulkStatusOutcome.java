@@ -0,0 +1,9 @@
+package com.qnboke04.techadict.enums;
+
+public enum BulkStatusOutcome {
+    UPDATED,              // Đã chuyển sang trạng thái đích
+    UNCHANGED,            // Đơn đã ở trạng thái đích
+    NOT_FOUND,            // Không có đơn
+    INVALID_TRANSITION,   // Bảng chuyển trạng thái không cho phép
+    CONFLICT              // Đơn bị thay đổi đồng thời, thử lại vẫn xung đột
+}
@@ -0,0 +1,39 @@
+package com.qnboke04.techadict.enums;
+
+import com.qnboke04.techadict.exception.AppException;
+import com.qnboke04.techadict.exception.ErrorCode;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),              // Mở được bằng Excel (có BOM UTF-8) — mặc định
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson"); // Mỗi dòng 1 object JSON
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // ✅ "csv" / "NDJSON" / null → enum
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_EXPORT_FORMAT);
+        }
+    }
+}
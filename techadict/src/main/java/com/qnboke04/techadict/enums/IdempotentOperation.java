@@ -0,0 +1,18 @@
+package com.qnboke04.techadict.enums;
+
+// Endpoint nhận Idempotency-Key: key chỉ phát lại kết quả của chính endpoint đó
+public enum IdempotentOperation {
+    ORDER_CREATE("order"),          // POST /orders → 200 + đơn đã tạo
+    ORDER_SUBMIT("order-async"),    // POST /orders?mode=async → 202 + đơn PROCESSING
+    CART_CHECKOUT("checkout");      // POST /carts/{userId}/checkout
+
+    private final String prefix;
+
+    IdempotentOperation(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
@@ -0,0 +1,8 @@
+package com.qnboke04.techadict.enums;
+
+public enum IntakeStatus {
+    QUEUED,       // Đã nhận, chờ xử lý
+    PROCESSING,   // Worker đang tạo đơn
+    DONE,         // Đã tạo đơn
+    FAILED        // Tạo đơn thất bại (xem error)
+}
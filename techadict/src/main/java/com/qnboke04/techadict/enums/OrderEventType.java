@@ -0,0 +1,9 @@
+package com.qnboke04.techadict.enums;
+
+public enum OrderEventType {
+    ORDER_CREATED,          // Tạo đơn mới
+    ORDER_STATUS_CHANGED,   // Admin đổi trạng thái đơn
+    PAYMENT_UPDATED,        // Cập nhật trạng thái thanh toán
+    ORDER_CANCELED,         // Người dùng hủy đơn
+    ORDER_EXPIRED           // Hệ thống hủy đơn chờ thanh toán quá hạn
+}
@@ -1,6 +1,10 @@
 package com.qnboke04.techadict.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
+    PROCESSING,   // Đã nhận, đang tạo đơn (chỉ xuất hiện ở response, không lưu vào orders)
     PENDING,      // Chờ xác nhận
     CONFIRMED,    // Đã xác nhận
     PAID,         // Đã thanh toán
@@ -8,6 +12,23 @@ public enum OrderStatus {
     SHIPPED,      // Đã giao cho bên vận chuyển
     DELIVERING,   // Đang giao
     DELIVERED,    // Giao thành công
-    CANCELED     // Đã hủy
+    CANCELED;    // Đã hủy
+
+    // ✅ Bảng chuyển trạng thái hợp lệ; DELIVERED / CANCELED là trạng thái cuối
+    public Set<OrderStatus> next() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, PAID, CANCELED);
+            case CONFIRMED -> EnumSet.of(PAID, PREPARING, CANCELED);
+            case PAID -> EnumSet.of(CONFIRMED, PREPARING, CANCELED);
+            case PREPARING -> EnumSet.of(SHIPPED, DELIVERING, CANCELED);
+            case SHIPPED -> EnumSet.of(DELIVERING, DELIVERED);
+            case DELIVERING -> EnumSet.of(DELIVERED);
+            case PROCESSING, DELIVERED, CANCELED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return next().contains(target);
+    }
 }
 
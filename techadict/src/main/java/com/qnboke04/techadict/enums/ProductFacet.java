@@ -0,0 +1,9 @@
+package com.qnboke04.techadict.enums;
+
+public enum ProductFacet {
+    CATEGORY,   // Danh mục
+    BRAND,      // Thương hiệu
+    STORAGE,    // Dung lượng (theo variant)
+    COLOR,      // Màu sắc (theo variant)
+    PRICE       // Khoảng giá (theo giá variant thấp nhất)
+}
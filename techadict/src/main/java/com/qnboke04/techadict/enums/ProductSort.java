@@ -0,0 +1,24 @@
+package com.qnboke04.techadict.enums;
+
+import com.qnboke04.techadict.exception.AppException;
+import com.qnboke04.techadict.exception.ErrorCode;
+
+import java.util.Locale;
+
+public enum ProductSort {
+    NEWEST,      // Mới nhất trước (createdAt giảm dần) — mặc định
+    PRICE_ASC,   // Giá thấp → cao (theo minPrice)
+    PRICE_DESC;  // Giá cao → thấp (theo minPrice)
+
+    // ✅ "price_asc" / "PRICE_ASC" / null → enum
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_SORT);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.qnboke04.techadict.event;
+
+/**
+ * ✅ Phát ra sau khi sửa brand; read model chứa tên brand cần cập nhật theo.
+ */
+public record BrandChangedEvent(String brandId, String name) {
+}
@@ -0,0 +1,7 @@
+package com.qnboke04.techadict.event;
+
+/**
+ * ✅ Phát ra sau khi sửa category; read model chứa tên category cần cập nhật theo.
+ */
+public record CategoryChangedEvent(String categoryId, String name) {
+}
@@ -0,0 +1,24 @@
+package com.qnboke04.techadict.event;
+
+import com.qnboke04.techadict.enums.OrderEventType;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ✅ Sự kiện đơn hàng đi qua outbox (giao ít nhất một lần — bên nhận bỏ qua id đã xử lý).
+ *
+ * @param previousStatus trạng thái trước khi đổi (chỉ có với ORDER_STATUS_CHANGED / ORDER_CANCELED)
+ */
+public record OrderEvent(String id,
+                         OrderEventType type,
+                         String orderId,
+                         String userId,
+                         OrderStatus status,
+                         OrderStatus previousStatus,
+                         PaymentStatus paymentStatus,
+                         BigDecimal totalAmount,
+                         LocalDateTime occurredAt) {
+}
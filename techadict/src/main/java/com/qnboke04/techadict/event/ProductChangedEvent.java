@@ -0,0 +1,22 @@
+package com.qnboke04.techadict.event;
+
+import com.qnboke04.techadict.dto.response.ProductResponse;
+
+/**
+ * ✅ Phát ra sau mỗi lần tạo / cập nhật / xóa sản phẩm.
+ * product == null nghĩa là sản phẩm đã bị xóa.
+ */
+public record ProductChangedEvent(String productId, ProductResponse product) {
+
+    public static ProductChangedEvent saved(ProductResponse product) {
+        return new ProductChangedEvent(product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(String productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.qnboke04.techadict.event;
+
+import java.util.Set;
+
+/**
+ * ✅ Phát ra khi tồn kho variant thay đổi ngoài ProductService (đặt hàng, hủy đơn...).
+ */
+public record StockChangedEvent(Set<String> productIds) {
+}
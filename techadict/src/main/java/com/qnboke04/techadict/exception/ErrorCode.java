@@ -14,6 +14,11 @@ public enum ErrorCode {
     USER_NOT_EXISTED(1005, "User not existed", HttpStatus.NOT_FOUND),
     UNAUTHENTICATED(1006, "Unauthenticated", HttpStatus.UNAUTHORIZED),
     UNAUTHORIZED(1007, "You do not have permission", HttpStatus.FORBIDDEN),
+    INVALID_CURSOR(1008, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+    INVALID_SORT(1009, "Invalid sort option", HttpStatus.BAD_REQUEST),
+    CONCURRENT_UPDATE(1010, "Data was changed by another request, please reload and try again", HttpStatus.CONFLICT),
+    INVALID_STATUS_TRANSITION(1011, "Order status transition is not allowed", HttpStatus.CONFLICT),
+    INVALID_EXPORT_FORMAT(1012, "Invalid export format", HttpStatus.BAD_REQUEST),
     ;
 
     ErrorCode(int code, String message, HttpStatusCode statusCode) {
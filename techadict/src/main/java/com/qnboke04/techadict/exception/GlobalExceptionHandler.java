@@ -3,6 +3,7 @@ package com.qnboke04.techadict.exception;
 
 import com.qnboke04.techadict.dto.request.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +38,20 @@ public class GlobalExceptionHandler {
                 .body(apiResponse);
     }
 
+    // ✅ Ghi đè lên bản ghi đã bị người khác sửa (@Version) → 409, client tải lại rồi thử lại
+    @ExceptionHandler(value = OptimisticLockingFailureException.class)
+    ResponseEntity<ApiResponse> handlingOptimisticLocking(OptimisticLockingFailureException exception){
+        ErrorCode errorCode = ErrorCode.CONCURRENT_UPDATE;
+        ApiResponse apiResponse = new ApiResponse();
+
+        apiResponse.setCode(errorCode.getCode());
+        apiResponse.setMessage(errorCode.getMessage());
+
+        return ResponseEntity
+                .status(errorCode.getStatusCode())
+                .body(apiResponse);
+    }
+
 //    @ExceptionHandler(value = AccessDeniedException.class)
 //    ResponseEntity<ApiResponse> handlingAccessDeniedException(AccessDeniedException exception){
 //        ErrorCode errorCode = ErrorCode.UNAUTHORIZED;
@@ -0,0 +1,10 @@
+package com.qnboke04.techadict.mapper;
+
+import com.qnboke04.techadict.dto.response.CatalogItemResponse;
+import com.qnboke04.techadict.entity.CatalogView;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface CatalogViewMapper {
+    CatalogItemResponse toResponse(CatalogView view);
+}
@@ -6,6 +6,8 @@ import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
 public interface ProductVariantMapper {
+    @Mapping(target = "hotReservation", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ProductVariants toEntity(VariantRequest dto);
     VariantResponse toResponse(ProductVariants entity);
 }
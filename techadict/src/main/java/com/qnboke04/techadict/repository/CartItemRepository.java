@@ -2,8 +2,18 @@ package com.qnboke04.techadict.repository;
 
 import com.qnboke04.techadict.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, String> {
+
+    // ✅ Xóa nhiều item bằng 1 câu DELETE (không nạp từng entity)
+    @Modifying
+    @Query("delete from CartItem i where i.id in :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
 }
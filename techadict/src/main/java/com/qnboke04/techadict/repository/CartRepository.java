@@ -2,6 +2,8 @@ package com.qnboke04.techadict.repository;
 
 import com.qnboke04.techadict.entity.Carts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,14 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Carts, String> {
     Optional<Carts> findByUserId(String userId);
+
+    // ✅ Giỏ + item + variant + product trong 1 query (dùng cho checkout)
+    @Query("""
+            select distinct c from Carts c
+            left join fetch c.items i
+            left join fetch i.variant v
+            left join fetch v.product
+            where c.user.id = :userId
+            """)
+    Optional<Carts> findWithItemsByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,65 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.CatalogView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CatalogViewRepository extends JpaRepository<CatalogView, String> {
+
+    // ✅ Đọc catalog: 1 query trên 1 bảng, theo index idx_catalog_view_created_at_id
+    @Query("select c from CatalogView c order by c.createdAt desc, c.id desc")
+    List<CatalogView> findFirstPage(Pageable pageable);
+
+    @Query("""
+            select c from CatalogView c
+            where c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)
+            order by c.createdAt desc, c.id desc
+            """)
+    List<CatalogView> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") String id,
+                                    Pageable pageable);
+
+    // ✅ Tồn kho đổi (đặt / hủy đơn): tính lại tổng tồn kho bằng 1 câu lệnh set-based
+    @Modifying
+    @Query("""
+            update CatalogView c
+            set c.totalStock = (select coalesce(sum(v.quantity), 0) from ProductVariants v where v.product.id = c.id),
+                c.projectedAt = :now
+            where c.id in :ids
+            """)
+    int refreshStock(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    // ✅ Đổi tên brand / category: sửa mọi dòng liên quan bằng 1 câu lệnh, không chiếu lại từng sản phẩm
+    @Modifying
+    @Query("""
+            update CatalogView c
+            set c.brandName = :name, c.projectedAt = :now
+            where c.id in (select p.id from Products p where p.brand.id = :brandId)
+            """)
+    int renameBrand(@Param("brandId") String brandId, @Param("name") String name, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update CatalogView c
+            set c.categoryName = :name, c.projectedAt = :now
+            where c.id in (select p.id from Products p where p.category.id = :categoryId)
+            """)
+    int renameCategory(@Param("categoryId") String categoryId, @Param("name") String name,
+                       @Param("now") LocalDateTime now);
+
+    // Dọn các dòng của sản phẩm không còn tồn tại (dùng khi rebuild)
+    @Transactional
+    @Modifying
+    @Query("delete from CatalogView c where not exists (select 1 from Products p where p.id = c.id)")
+    int deleteOrphans();
+}
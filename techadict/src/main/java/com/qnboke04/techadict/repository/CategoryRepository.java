@@ -1,10 +1,20 @@
 package com.qnboke04.techadict.repository;
 
 import com.qnboke04.techadict.entity.Category;
+import com.qnboke04.techadict.service.ResourceVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, String> {
     boolean existsByName(String name);
+
+    // ✅ Phiên bản cho ETag / Last-Modified
+    @Query("select new com.qnboke04.techadict.service.ResourceVersion(count(c), max(c.updatedAt)) from Category c")
+    ResourceVersion version();
+
+    @Query("select new com.qnboke04.techadict.service.ResourceVersion(count(c), max(c.updatedAt)) from Category c where c.id = :id")
+    ResourceVersion versionOf(@Param("id") String id);
 }
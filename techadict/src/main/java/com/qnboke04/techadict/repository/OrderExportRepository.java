@@ -0,0 +1,102 @@
+package com.qnboke04.techadict.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * ✅ Đọc dữ liệu xuất đơn hàng (OrderExportService) qua pool kết nối riêng.
+ *
+ * MySQL chỉ trả kết quả theo lô fetch size khi bật useCursorFetch, mà cờ này đổi mọi câu lệnh của kết nối
+ * sang server-side prepared statement → chỉ bật trên pool nhỏ này, pool chính của ứng dụng giữ nguyên.
+ * Pool khởi tạo lười: chưa xuất lần nào thì không mở kết nối.
+ */
+@Repository
+public class OrderExportRepository {
+    private static final int FETCH_SIZE = 1000;
+
+    // Mỗi dòng = 1 dòng đơn, kèm thông tin đơn / khách / thanh toán; đọc tuần tự theo index (created_at, id)
+    private static final String EXPORT_SQL = """
+            select o.id, o.created_at, o.status, u.id, u.email, o.total_amount, p.method, p.status,
+                   pr.name, v.name, v.color, v.storage, i.quantity, i.price, i.subtotal
+            from order_items i
+                 join orders o on o.id = i.order_id
+                 join product_variants v on v.id = i.variant_id
+                 left join products pr on pr.id = v.product_id
+                 left join users u on u.id = o.user_id
+                 left join payment p on p.order_id = o.id
+            where o.created_at >= ? and o.created_at < ?
+            order by o.created_at, o.id
+            """;
+
+    private static final RowMapper<ExportRow> ROW_MAPPER = (rs, rowNum) -> new ExportRow(
+            rs.getString(1),
+            rs.getObject(2, LocalDateTime.class),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getBigDecimal(6),
+            rs.getString(7),
+            rs.getString(8),
+            rs.getString(9),
+            rs.getString(10),
+            rs.getString(11),
+            rs.getString(12),
+            rs.getObject(13, Integer.class),
+            rs.getBigDecimal(14),
+            rs.getBigDecimal(15));
+
+    public record ExportRow(String orderId, LocalDateTime createdAt, String status,
+                            String userId, String email, BigDecimal totalAmount,
+                            String paymentMethod, String paymentStatus,
+                            String productName, String variantName, String color, String storage,
+                            Integer quantity, BigDecimal price, BigDecimal subtotal) {
+    }
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public OrderExportRepository(DataSourceProperties properties,
+                                 @Value("${order.export.pool-size:2}") int poolSize) {
+        this.dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("order-export");
+        this.dataSource.setMaximumPoolSize(Math.max(1, poolSize));
+        this.dataSource.setMinimumIdle(0);
+        if (dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            this.dataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * ✅ Đọc các dòng đơn tạo trong [from, to) trong 1 transaction chỉ đọc.
+     * Stream chỉ dùng được bên trong reader; reader trả về thì cursor được đóng.
+     */
+    public <T> T read(LocalDateTime from, LocalDateTime to, Function<Stream<ExportRow>, T> reader) {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<ExportRow> rows = jdbcTemplate.queryForStream(EXPORT_SQL, ROW_MAPPER, from, to)) {
+                return reader.apply(rows);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+}
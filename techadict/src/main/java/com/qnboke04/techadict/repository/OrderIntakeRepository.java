@@ -0,0 +1,82 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.OrderIntake;
+import com.qnboke04.techadict.enums.IntakeStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, String> {
+
+    // ✅ Các đơn chờ xử lý lâu nhất (dùng index status, created_at)
+    @Query("select i.id from OrderIntake i where i.status = :status order by i.createdAt, i.id")
+    List<String> findIdsByStatus(@Param("status") IntakeStatus status, Pageable pageable);
+
+    // ✅ Nhận một lô: chỉ dòng còn QUEUED mới đổi sang PROCESSING, worker khác đã nhận thì bỏ qua
+    @Modifying
+    @Query("""
+            update OrderIntake i set i.status = :processing, i.claimedBy = :worker, i.updatedAt = :now
+            where i.id in :ids and i.status = :queued
+            """)
+    int claim(@Param("ids") Collection<String> ids,
+              @Param("worker") String worker,
+              @Param("queued") IntakeStatus queued,
+              @Param("processing") IntakeStatus processing,
+              @Param("now") LocalDateTime now);
+
+    @Query("select i.id from OrderIntake i where i.id in :ids and i.claimedBy = :worker and i.status = :status")
+    List<String> findClaimed(@Param("ids") Collection<String> ids,
+                             @Param("worker") String worker,
+                             @Param("status") IntakeStatus status);
+
+    // ✅ Kết thúc xử lý; không khớp worker (đã bị nhận lại) thì không ghi đè
+    @Modifying
+    @Query("""
+            update OrderIntake i set i.status = :status, i.error = :error, i.updatedAt = :now
+            where i.id = :id and i.claimedBy = :worker and i.status = :processing
+            """)
+    int finish(@Param("id") String id,
+               @Param("worker") String worker,
+               @Param("processing") IntakeStatus processing,
+               @Param("status") IntakeStatus status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    // ✅ Lỗi tạm thời: trả lại hàng đợi khi còn lượt thử (0 dòng = hết lượt hoặc đã bị nhận lại)
+    @Modifying
+    @Query("""
+            update OrderIntake i set i.status = :queued, i.claimedBy = null, i.attempts = i.attempts + 1,
+                i.error = :error, i.updatedAt = :now
+            where i.id = :id and i.claimedBy = :worker and i.status = :processing and i.attempts < :maxAttempts
+            """)
+    int requeue(@Param("id") String id,
+                @Param("worker") String worker,
+                @Param("processing") IntakeStatus processing,
+                @Param("queued") IntakeStatus queued,
+                @Param("maxAttempts") int maxAttempts,
+                @Param("error") String error,
+                @Param("now") LocalDateTime now);
+
+    // ✅ Trả về hàng đợi các dòng PROCESSING quá hạn (worker chết giữa chừng)
+    @Modifying
+    @Query("""
+            update OrderIntake i set i.status = :queued, i.claimedBy = null, i.updatedAt = :now
+            where i.status = :processing and i.updatedAt < :before
+            """)
+    int requeueStale(@Param("queued") IntakeStatus queued,
+                     @Param("processing") IntakeStatus processing,
+                     @Param("before") LocalDateTime before,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from OrderIntake i where i.status in :statuses and i.updatedAt < :before")
+    int deleteFinished(@Param("statuses") Collection<IntakeStatus> statuses, @Param("before") LocalDateTime before);
+}
@@ -1,9 +1,92 @@
 package com.qnboke04.techadict.repository;
 
 import com.qnboke04.techadict.entity.OrderItem;
+import com.qnboke04.techadict.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, String> {
+
+    // Dòng đơn đã giữ hàng trong InventoryLedger nhưng chưa trừ vào product_variants
+    interface PendingStock {
+        String getId();
+        String getVariantId();
+        String getProductId();
+        Integer getQuantity();
+    }
+
+    @Query("""
+            select i.id as id, v.id as variantId, v.product.id as productId, i.quantity as quantity
+            from OrderItem i join i.variant v
+            where i.stockPending = true
+            """)
+    List<PendingStock> findPendingStock();
+
+    @Query("""
+            select i.id as id, v.id as variantId, v.product.id as productId, i.quantity as quantity
+            from OrderItem i join i.variant v
+            where v.id = :variantId and i.stockPending = true
+            """)
+    List<PendingStock> findPendingStockOf(@Param("variantId") String variantId);
+
+    @Query("select coalesce(sum(i.quantity), 0) from OrderItem i where i.variant.id = :variantId and i.stockPending = true")
+    long sumPendingStock(@Param("variantId") String variantId);
+
+    @Modifying
+    @Query("update OrderItem i set i.stockPending = false where i.id in :ids and i.stockPending = true")
+    int clearStockPending(@Param("ids") Collection<String> ids);
+
+    // ✅ Dựng lại rollup theo ngày × variant × trạng thái (SalesRollup.rebuild)
+    interface DailyVariantTotals {
+        LocalDate getSalesDate();
+        String getVariantId();
+        String getProductId();
+        OrderStatus getStatus();
+        Long getUnits();
+        BigDecimal getRevenue();
+    }
+
+    @Query("""
+            select cast(o.createdAt as LocalDate) as salesDate, v.id as variantId, v.product.id as productId,
+                   o.status as status, sum(i.quantity) as units, sum(i.subtotal) as revenue
+            from OrderItem i join i.order o join i.variant v
+            where o.createdAt >= :from and o.createdAt < :to
+            group by cast(o.createdAt as LocalDate), v.id, v.product.id, o.status
+            """)
+    List<DailyVariantTotals> sumDailyByVariant(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Cùng số liệu nhưng chỉ cho các đơn chỉ định (chuyển trạng thái hàng loạt)
+    @Query("""
+            select cast(o.createdAt as LocalDate) as salesDate, v.id as variantId, v.product.id as productId,
+                   o.status as status, sum(i.quantity) as units, sum(i.subtotal) as revenue
+            from OrderItem i join i.order o join i.variant v
+            where o.id in :ids
+            group by cast(o.createdAt as LocalDate), v.id, v.product.id, o.status
+            """)
+    List<DailyVariantTotals> sumDailyByVariantOf(@Param("ids") Collection<String> ids);
+
+    // Số lượng theo variant của các đơn chỉ định (hoàn kho hàng loạt)
+    interface VariantQuantity {
+        String getVariantId();
+        String getProductId();
+        Long getQuantity();
+    }
+
+    @Query("""
+            select v.id as variantId, v.product.id as productId, sum(i.quantity) as quantity
+            from OrderItem i join i.variant v
+            where i.order.id in :orderIds
+            group by v.id, v.product.id
+            """)
+    List<VariantQuantity> sumQuantityByVariantOf(@Param("orderIds") Collection<String> orderIds);
 }
@@ -1,12 +1,130 @@
 package com.qnboke04.techadict.repository;
 
+import com.qnboke04.techadict.dto.response.OrderSummaryResponse;
 import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentMethod;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Orders, String> {
-    List<Orders> findByUserId(String userId);
+public interface OrderRepository extends JpaRepository<Orders, String>, OrderSearchRepository, OrderStateRepository {
+    // ✅ Lịch sử đơn của 1 user, mới nhất trước, keyset trên index (user_id, created_at) — InnoDB có sẵn id ở cuối
+    // Trang đầu: afterCreatedAt = null (bỏ điều kiện seek); chỉ đọc cột tóm tắt + đếm số lượng theo order_id
+    @Query("""
+            select new com.qnboke04.techadict.dto.response.OrderSummaryResponse(
+                   o.id, o.createdAt, o.status, o.totalAmount,
+                   (select coalesce(sum(i.quantity), 0) from OrderItem i where i.order = o),
+                   p.method, p.status)
+            from Orders o left join o.payment p
+            where o.user.id = :userId
+              and (:afterCreatedAt is null
+                   or o.createdAt < :afterCreatedAt or (o.createdAt = :afterCreatedAt and o.id < :afterId))
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderSummaryResponse> findHistory(@Param("userId") String userId,
+                                           @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                           @Param("afterId") String afterId,
+                                           Pageable pageable);
+
+    // ✅ Nạp items + variant cho cả trang đơn bằng 1 query
+    @Query("select distinct o from Orders o left join fetch o.items i left join fetch i.variant where o in :orders")
+    List<Orders> fetchItems(@Param("orders") Collection<Orders> orders);
+
+    // ================= Chuyển trạng thái hàng loạt (không nạp cả đồ thị đơn) =================
+
+    interface OrderState {
+        String getId();
+        OrderStatus getStatus();
+        Long getVersion();
+        String getUserId();
+        BigDecimal getTotalAmount();
+        PaymentStatus getPaymentStatus();
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("""
+            select o.id as id, o.status as status, o.version as version, o.user.id as userId,
+                   o.totalAmount as totalAmount, p.status as paymentStatus, o.createdAt as createdAt
+            from Orders o left join o.payment p
+            where o.id in :ids
+            """)
+    List<OrderState> findStates(@Param("ids") Collection<String> ids);
+
+    // ✅ Đơn chờ thanh toán quá hạn (OrderExpirySweeper): duyệt keyset theo index (status, created_at, id)
+    // Trang sau bắt đầu từ (createdAt, id) của dòng cuối trang trước
+    @Query("""
+            select o.id as id, o.status as status, o.version as version, o.user.id as userId,
+                   o.totalAmount as totalAmount, p.status as paymentStatus, o.createdAt as createdAt
+            from Orders o join o.payment p
+            where o.status = :status and o.createdAt < :cutoff
+              and (o.createdAt > :afterCreatedAt or (o.createdAt = :afterCreatedAt and o.id > :afterId))
+              and p.method = :method and p.status = :paymentStatus
+            order by o.createdAt, o.id
+            """)
+    List<OrderState> findExpired(@Param("status") OrderStatus status,
+                                 @Param("method") PaymentMethod method,
+                                 @Param("paymentStatus") PaymentStatus paymentStatus,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                 @Param("afterId") String afterId,
+                                 Pageable pageable);
+
+    // ================= Thống kê =================
+
+    // Số khách không cộng dồn được qua các ngày nên vẫn đếm trên orders (index created_at)
+    @Query("""
+            select count(distinct o.user.id)
+            from Orders o
+            where o.createdAt >= :from and o.createdAt < :to and o.status <> :excluded
+            """)
+    long countCustomers(@Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("excluded") OrderStatus excluded);
+
+    // ================= Dựng lại rollup doanh số (SalesRollup.rebuild) =================
+
+    interface DailyStatusTotals {
+        LocalDate getSalesDate();
+        OrderStatus getStatus();
+        Long getOrders();
+        BigDecimal getRevenue();
+        BigDecimal getPaidRevenue();
+    }
+
+    // Cùng số liệu nhưng chỉ cho các đơn chỉ định (chuyển trạng thái hàng loạt)
+    @Query("""
+            select cast(o.createdAt as LocalDate) as salesDate, o.status as status, count(o) as orders,
+                   sum(o.totalAmount) as revenue,
+                   sum(case when p.status = :paid then o.totalAmount else 0 end) as paidRevenue
+            from Orders o left join o.payment p
+            where o.id in :ids
+            group by cast(o.createdAt as LocalDate), o.status
+            """)
+    List<DailyStatusTotals> sumDailyByStatusOf(@Param("ids") Collection<String> ids, @Param("paid") PaymentStatus paid);
+
+    @Query("select min(o.createdAt) from Orders o")
+    LocalDateTime findFirstCreatedAt();
+
+    @Query("""
+            select cast(o.createdAt as LocalDate) as salesDate, o.status as status, count(o) as orders,
+                   sum(o.totalAmount) as revenue,
+                   sum(case when p.status = :paid then o.totalAmount else 0 end) as paidRevenue
+            from Orders o left join o.payment p
+            where o.createdAt >= :from and o.createdAt < :to
+            group by cast(o.createdAt as LocalDate), o.status
+            """)
+    List<DailyStatusTotals> sumDailyByStatus(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("paid") PaymentStatus paid);
 }
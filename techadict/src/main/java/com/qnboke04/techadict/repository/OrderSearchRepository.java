@@ -0,0 +1,21 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.dto.request.OrderFilter;
+import com.qnboke04.techadict.entity.Orders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ✅ Tìm đơn theo bộ lọc động, phân trang keyset (created_at desc, id desc).
+ * Chỉ thêm điều kiện cho trường có giá trị để MySQL chọn được index
+ * (status, created_at) hoặc (user_id, created_at).
+ */
+public interface OrderSearchRepository {
+
+    /**
+     * @param afterCreatedAt / afterId bản ghi cuối trang trước (null = trang đầu)
+     * @param limit số dòng tối đa
+     */
+    List<Orders> search(OrderFilter filter, LocalDateTime afterCreatedAt, String afterId, int limit);
+}
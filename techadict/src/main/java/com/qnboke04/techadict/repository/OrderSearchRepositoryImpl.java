@@ -0,0 +1,60 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.dto.request.OrderFilter;
+import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.entity.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fragment của OrderRepository (Spring Data tìm theo hậu tố Impl)
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Orders> search(OrderFilter filter, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Orders> query = cb.createQuery(Orders.class);
+        Root<Orders> order = query.from(Orders.class);
+        // Payment là quan hệ 1-1 → fetch cùng trang, không sinh thêm query cho mỗi đơn
+        Fetch<Orders, Payment> paymentFetch = order.fetch("payment", JoinType.LEFT);
+        @SuppressWarnings("unchecked")
+        Join<Orders, Payment> payment = (Join<Orders, Payment>) paymentFetch;
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            where.add(cb.equal(order.get("status"), filter.getStatus()));
+        }
+        if (filter.getUserId() != null && !filter.getUserId().isBlank()) {
+            where.add(cb.equal(order.get("user").get("id"), filter.getUserId()));
+        }
+        if (filter.getPaymentStatus() != null) {
+            where.add(cb.equal(payment.get("status"), filter.getPaymentStatus()));
+        }
+        Path<LocalDateTime> createdAt = order.get("createdAt");
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(createdAt, filter.getTo()));
+        }
+        if (afterCreatedAt != null) {
+            where.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(order.get("id"), afterId))));
+        }
+
+        query.select(order)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(order.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
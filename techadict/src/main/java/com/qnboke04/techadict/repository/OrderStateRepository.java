@@ -0,0 +1,22 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.enums.OrderStatus;
+
+import java.util.Map;
+
+public interface OrderStateRepository {
+    /**
+     * ✅ Chuyển trạng thái bằng 1 câu UPDATE có điều kiện (where id = ? and status = ? and version = ?).
+     * Thành công thì nạp lại order đang giữ (refresh) và trả true; đơn đã bị người khác đổi → false.
+     */
+    boolean transition(Orders order, OrderStatus target);
+
+    /**
+     * ✅ Chuyển nhiều đơn cùng trạng thái nguồn bằng 1 câu UPDATE: mỗi dòng phải còn đúng status và
+     * version đã đọc (versions: orderId → version).
+     *
+     * @return số dòng đã chuyển; ít hơn versions.size() nghĩa là có đơn vừa bị người khác đổi
+     */
+    int transitionAll(Map<String, Long> versions, OrderStatus current, OrderStatus target);
+}
@@ -0,0 +1,66 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Fragment của OrderRepository (Spring Data tìm theo hậu tố Impl)
+class OrderStateRepositoryImpl implements OrderStateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean transition(Orders order, OrderStatus target) {
+        // Bulk update bỏ qua @PreUpdate và @Version nên tự cập nhật updatedAt, version
+        int updated = entityManager.createQuery(
+                        "update Orders o set o.status = :target, o.version = o.version + 1, o.updatedAt = :now"
+                                + " where o.id = :id and o.status = :current and o.version = :version")
+                .setParameter("target", target)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("id", order.getId())
+                .setParameter("current", order.getStatus())
+                .setParameter("version", order.getVersion())
+                .executeUpdate();
+        if (updated == 0) {
+            return false;
+        }
+        // Dòng đã ghi xong: nạp lại order (status, version mới) để mapper / outbox / rollup thấy đúng
+        // và các thay đổi sau đó trên order vẫn được flush bình thường theo version mới
+        entityManager.refresh(order);
+        return true;
+    }
+
+    @Override
+    public int transitionAll(Map<String, Long> versions, OrderStatus current, OrderStatus target) {
+        if (versions.isEmpty()) {
+            return 0;
+        }
+        // o.version = (case o.id when :id0 then :v0 when :id1 then :v1 ... end)
+        StringBuilder expected = new StringBuilder("(case o.id");
+        for (int i = 0; i < versions.size(); i++) {
+            expected.append(" when :id").append(i).append(" then :v").append(i);
+        }
+        expected.append(" end)");
+        Query query = entityManager.createQuery(
+                "update Orders o set o.status = :target, o.version = o.version + 1, o.updatedAt = :now"
+                        + " where o.id in :ids and o.status = :current and o.version = " + expected);
+        int i = 0;
+        for (Map.Entry<String, Long> entry : versions.entrySet()) {
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("v" + i, entry.getValue());
+            i++;
+        }
+        return query
+                .setParameter("target", target)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("ids", versions.keySet())
+                .setParameter("current", current)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,36 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, String> {
+
+    // ✅ Lô sự kiện chưa phát, cũ nhất trước (dùng index published_at, created_at, id), bỏ qua dòng đã cách ly
+    @Query("""
+            select e from OutboxEvent e where e.publishedAt is null and e.quarantinedAt is null
+            order by e.createdAt, e.id
+            """)
+    List<OutboxEvent> findUnpublished(Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :now, e.updatedAt = :now where e.id in :ids")
+    int markPublished(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.quarantinedAt = :now, e.error = :error, e.updatedAt = :now where e.id = :id")
+    int quarantine(@Param("id") String id, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,28 @@
 package com.qnboke04.techadict.repository;
 
 import com.qnboke04.techadict.entity.Payment;
+import com.qnboke04.techadict.enums.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, String> {
+
+    // ✅ Đổi trạng thái thanh toán của nhiều đơn bằng 1 câu UPDATE, chỉ ở dòng còn đúng trạng thái cũ
+    // Bulk update bỏ qua @PreUpdate và @Version nên tự cập nhật updatedAt, version
+    @Modifying
+    @Query("""
+            update Payment p set p.status = :target, p.version = p.version + 1, p.updatedAt = :now
+            where p.order.id in :orderIds and p.status = :current
+            """)
+    int updateStatusOf(@Param("orderIds") Collection<String> orderIds,
+                       @Param("current") PaymentStatus current,
+                       @Param("target") PaymentStatus target,
+                       @Param("now") LocalDateTime now);
 }
@@ -1,9 +1,172 @@
 package com.qnboke04.techadict.repository;
 
+import com.qnboke04.techadict.dto.response.ProductCardResponse;
 import com.qnboke04.techadict.entity.Products;
+import com.qnboke04.techadict.service.ResourceVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Products, String> {
+
+    // ✅ Phân trang keyset theo (createdAt, id) giảm dần — dùng index idx_products_created_at_id
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            order by p.createdAt desc, p.id desc
+            """)
+    List<Products> findFirstPage(Pageable pageable);
+
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<Products> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") String id,
+                                 Pageable pageable);
+
+    // ✅ Sắp xếp theo giá: keyset theo (minPrice, id) — dùng index idx_products_min_price_id
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            order by p.minPrice asc, p.id asc
+            """)
+    List<Products> findFirstPageByPriceAsc(Pageable pageable);
+
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            where p.minPrice > :price or (p.minPrice = :price and p.id > :id)
+            order by p.minPrice asc, p.id asc
+            """)
+    List<Products> findPageByPriceAscAfter(@Param("price") BigDecimal price,
+                                           @Param("id") String id,
+                                           Pageable pageable);
+
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            order by p.minPrice desc, p.id desc
+            """)
+    List<Products> findFirstPageByPriceDesc(Pageable pageable);
+
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            where p.minPrice < :price or (p.minPrice = :price and p.id < :id)
+            order by p.minPrice desc, p.id desc
+            """)
+    List<Products> findPageByPriceDescAfter(@Param("price") BigDecimal price,
+                                            @Param("id") String id,
+                                            Pageable pageable);
+
+    // ✅ Backfill minPrice / maxPrice cho dữ liệu có từ trước khi thêm cột
+    @Modifying
+    @Query("""
+            update Products p set
+                p.minPrice = coalesce((select min(v.price) from ProductVariants v where v.product = p), p.origin_price, 0),
+                p.maxPrice = coalesce((select max(v.price) from ProductVariants v where v.product = p), p.origin_price, 0)
+            where p.minPrice is null
+            """)
+    int backfillPriceRange();
+
+    // ================= Projection cho view "card" =================
+    // Chỉ SELECT các cột cần cho thẻ sản phẩm; ảnh đại diện là subquery nên
+    // không nạp entity, không đụng tới variants / images collection.
+    // product_images không có cột thứ tự nên ảnh đại diện lấy min(image_url) cho ổn định.
+
+    @Query("""
+            select new com.qnboke04.techadict.dto.response.ProductCardResponse(
+                p.id, p.name,
+                (select min(i) from Products owner join owner.images i where owner.id = p.id),
+                p.minPrice, p.featured, p.createdAt)
+            from Products p
+            order by p.createdAt desc, p.id desc
+            """)
+    List<ProductCardResponse> findFirstCardPage(Pageable pageable);
+
+    @Query("""
+            select new com.qnboke04.techadict.dto.response.ProductCardResponse(
+                p.id, p.name,
+                (select min(i) from Products owner join owner.images i where owner.id = p.id),
+                p.minPrice, p.featured, p.createdAt)
+            from Products p
+            where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<ProductCardResponse> findCardPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") String id,
+                                                Pageable pageable);
+
+    // ================= Fetch plan cho read path =================
+    // variants và images đều là bag (List) nên không join fetch chung một query được
+    // (MultipleBagFetchException / tích Descartes) → mỗi collection một query riêng,
+    // Hibernate tự gắn kết quả vào các entity đã có trong persistence context.
+
+    @EntityGraph(attributePaths = {"category", "brand", "variants"})
+    @Query("select p from Products p where p.id = :id")
+    Optional<Products> findDetailById(@Param("id") String id);
+
+    @Query("select p from Products p left join fetch p.category left join fetch p.brand where p.id in :ids")
+    List<Products> findAllWithDetailsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("""
+            select p from Products p
+            left join fetch p.category
+            left join fetch p.brand
+            where p.featured = true
+            order by p.createdAt desc, p.id desc
+            """)
+    List<Products> findFeaturedWithDetails();
+
+    @Query("select p from Products p left join fetch p.variants where p in :products")
+    List<Products> fetchVariants(@Param("products") Collection<Products> products);
+
+    @Query("select p from Products p left join fetch p.images where p in :products")
+    List<Products> fetchImages(@Param("products") Collection<Products> products);
+
+    // ================= Phiên bản cho HTTP conditional request =================
+    // Gộp updatedAt của products, variants, category, brand vì ProductResponse chứa cả 4
+    // Chi tiết 1 sản phẩm: count = 1 (dòng product, kể cả khi chưa có variant) + số variant (đổi khi xóa variant)
+
+    @Query("""
+            select new com.qnboke04.techadict.service.ResourceVersion(
+                count(p), max(p.updatedAt),
+                (select max(v.updatedAt) from ProductVariants v),
+                (select max(c.updatedAt) from Category c),
+                (select max(b.updatedAt) from Brand b))
+            from Products p
+            """)
+    ResourceVersion version();
+
+    @Query("""
+            select new com.qnboke04.techadict.service.ResourceVersion(
+                count(distinct p) + count(v), max(v.updatedAt), p.updatedAt, c.updatedAt, b.updatedAt)
+            from Products p
+            left join p.variants v
+            left join p.category c
+            left join p.brand b
+            where p.id = :id
+            group by p.id, p.updatedAt, c.updatedAt, b.updatedAt
+            """)
+    Optional<ResourceVersion> versionOf(@Param("id") String id);
 }
@@ -1,9 +1,35 @@
 package com.qnboke04.techadict.repository;
 
 import com.qnboke04.techadict.entity.ProductVariants;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ProductVariantRepository extends JpaRepository<ProductVariants,String> {
+public interface ProductVariantRepository extends JpaRepository<ProductVariants,String>, StockReservationRepository {
+
+    @Query("select v.id from ProductVariants v where v.hotReservation = true")
+    List<String> findHotReservationIds();
+
+    @Modifying
+    @Query("update ProductVariants v set v.hotReservation = :hot, v.version = v.version + 1 where v.id = :id")
+    int setHotReservation(@Param("id") String id, @Param("hot") boolean hot);
+
+    // Đọc có khóa dòng: chờ các UPDATE tồn kho đang chạy xong rồi mới lấy số tồn để nạp vào ledger
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from ProductVariants v where v.id = :id")
+    Optional<ProductVariants> findForUpdate(@Param("id") String id);
+
+    // Khóa các dòng đang bật hot: thấy cờ dưới khóa thì chắc chắn UPDATE tồn kho trước đó đã bỏ qua dòng này
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v.id from ProductVariants v where v.id in :ids and v.hotReservation = true")
+    List<String> lockHotReservationIds(@Param("ids") Collection<String> ids);
 }
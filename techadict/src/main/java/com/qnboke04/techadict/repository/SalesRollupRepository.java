@@ -0,0 +1,90 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.dto.response.ProductSalesResponse;
+import com.qnboke04.techadict.dto.response.StatusCountResponse;
+import com.qnboke04.techadict.entity.SalesDailyStatus;
+import com.qnboke04.techadict.enums.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// ✅ Đọc / ghi các bảng rollup doanh số theo ngày (sales_daily_status, sales_daily_variant)
+// Truy vấn thống kê quét theo ngày (index sales_date), không chạm orders / order_items
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesDailyStatus, String>, SalesRollupUpsertRepository {
+
+    interface SalesTotals {
+        Long getOrders();
+        BigDecimal getRevenue();
+        BigDecimal getPaidRevenue();
+    }
+
+    interface MonthlyTotals {
+        Integer getYear();
+        Integer getMonth();
+        BigDecimal getRevenue();
+        Long getOrders();
+    }
+
+    @Query("""
+            select sum(r.orders) as orders, sum(r.revenue) as revenue, sum(r.paidRevenue) as paidRevenue
+            from SalesDailyStatus r
+            where r.salesDate between :from and :to and r.status <> :excluded
+            """)
+    SalesTotals sumSales(@Param("from") LocalDate from,
+                         @Param("to") LocalDate to,
+                         @Param("excluded") OrderStatus excluded);
+
+    // Trạng thái mà mọi đơn đã chuyển đi vẫn còn dòng 0 → bỏ qua
+    @Query("""
+            select new com.qnboke04.techadict.dto.response.StatusCountResponse(r.status, sum(r.orders), sum(r.revenue))
+            from SalesDailyStatus r
+            where r.salesDate between :from and :to
+            group by r.status
+            having sum(r.orders) > 0
+            order by r.status
+            """)
+    List<StatusCountResponse> countByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            select year(r.salesDate) as year, month(r.salesDate) as month,
+                   sum(r.revenue) as revenue, sum(r.orders) as orders
+            from SalesDailyStatus r
+            where r.salesDate between :from and :to and r.status <> :excluded
+            group by year(r.salesDate), month(r.salesDate)
+            """)
+    List<MonthlyTotals> sumByMonth(@Param("from") LocalDate from,
+                                   @Param("to") LocalDate to,
+                                   @Param("excluded") OrderStatus excluded);
+
+    @Query("""
+            select new com.qnboke04.techadict.dto.response.ProductSalesResponse(
+                   p.id, p.name, sum(r.units), sum(r.revenue))
+            from SalesDailyVariant r join Products p on p.id = r.productId
+            where r.salesDate between :from and :to and r.status <> :excluded
+            group by p.id, p.name
+            having sum(r.units) > 0
+            order by sum(r.revenue) desc, p.id
+            """)
+    List<ProductSalesResponse> topProducts(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to,
+                                           @Param("excluded") OrderStatus excluded,
+                                           Pageable pageable);
+
+    // ================= Dựng lại (backfill) =================
+
+    @Modifying
+    @Query("delete from SalesDailyStatus r where r.salesDate between :from and :to")
+    int deleteStatusBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from SalesDailyVariant r where r.salesDate between :from and :to")
+    int deleteVariantBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,13 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.SalesDailyStatus;
+import com.qnboke04.techadict.entity.SalesDailyVariant;
+
+import java.util.Collection;
+
+public interface SalesRollupUpsertRepository {
+    // ✅ Cộng dồn các dòng delta vào bảng rollup (dòng chưa có thì tạo mới) — 1 câu lệnh cho cả danh sách
+    int addStatus(Collection<SalesDailyStatus> deltas);
+
+    int addVariant(Collection<SalesDailyVariant> deltas);
+}
@@ -0,0 +1,137 @@
+package com.qnboke04.techadict.repository;
+
+import com.qnboke04.techadict.entity.SalesDailyStatus;
+import com.qnboke04.techadict.entity.SalesDailyVariant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fragment của SalesRollupRepository (Spring Data tìm theo hậu tố Impl).
+ *
+ * Upsert cộng dồn nguyên tử trên DB: MySQL dùng INSERT ... AS new ON DUPLICATE KEY UPDATE (MySQL 8.0.19+),
+ * không đọc-rồi-ghi nên không mất cập nhật khi nhiều đơn cùng cộng vào một dòng.
+ * DB khác (H2 khi test) dùng MERGE chuẩn SQL — chỉ dành cho test chạy tuần tự: hai transaction cùng tạo
+ * một dòng mới thì bên sau gặp lỗi trùng khóa.
+ */
+class SalesRollupUpsertRepositoryImpl implements SalesRollupUpsertRepository {
+    // Số dòng tối đa mỗi câu lệnh (giới hạn số tham số JDBC)
+    private static final int CHUNK = 500;
+
+    private static final Table STATUS = new Table("sales_daily_status",
+            new String[]{"id", "sales_date", "status", "slot", "orders", "revenue", "paid_revenue"},
+            new String[]{"varchar(255)", "date", "varchar(20)", "integer", "bigint", "decimal(17,2)", "decimal(17,2)"},
+            new String[]{"orders", "revenue", "paid_revenue"});
+
+    private static final Table VARIANT = new Table("sales_daily_variant",
+            new String[]{"id", "sales_date", "variant_id", "product_id", "status", "slot", "units", "revenue"},
+            new String[]{"varchar(255)", "date", "varchar(255)", "varchar(255)", "varchar(20)", "integer", "bigint",
+                    "decimal(17,2)"},
+            new String[]{"units", "revenue"});
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int addStatus(Collection<SalesDailyStatus> deltas) {
+        return upsert(STATUS, deltas, r -> new Object[]{
+                r.getId(), r.getSalesDate(), r.getStatus().name(), r.getSlot(),
+                r.getOrders(), r.getRevenue(), r.getPaidRevenue()});
+    }
+
+    @Override
+    public int addVariant(Collection<SalesDailyVariant> deltas) {
+        return upsert(VARIANT, deltas, r -> new Object[]{
+                r.getId(), r.getSalesDate(), r.getVariantId(), r.getProductId(), r.getStatus().name(), r.getSlot(),
+                r.getUnits(), r.getRevenue()});
+    }
+
+    private <T> int upsert(Table table, Collection<T> deltas, Function<T, Object[]> values) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        boolean mysql = isMySql();
+        List<T> rows = new ArrayList<>(deltas);
+        int[] updated = {0};
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (int from = 0; from < rows.size(); from += CHUNK) {
+                List<T> chunk = rows.subList(from, Math.min(from + CHUNK, rows.size()));
+                String sql = mysql ? table.mysql(chunk.size()) : table.merge(chunk.size());
+                updated[0] += execute(connection, sql, chunk, values);
+            }
+        });
+        return updated[0];
+    }
+
+    private static <T> int execute(Connection connection, String sql, List<T> rows, Function<T, Object[]> values)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int position = 1;
+            for (T row : rows) {
+                for (Object value : values.apply(row)) {
+                    statement.setObject(position++, value);
+                }
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private boolean isMySql() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+
+    private record Table(String name, String[] columns, String[] types, String[] additive) {
+
+        // insert into t (a, b) values (?, ?), (?, ?) as new on duplicate key update n = n + new.n
+        // (dạng values(n) đã deprecated từ MySQL 8.0.20)
+        String mysql(int rows) {
+            StringBuilder sb = new StringBuilder("insert into ").append(name)
+                    .append(" (").append(String.join(", ", columns)).append(") values ");
+            String row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+            sb.append(String.join(", ", Collections.nCopies(rows, row)));
+            sb.append(" as new on duplicate key update ");
+            for (int i = 0; i < additive.length; i++) {
+                sb.append(i == 0 ? "" : ", ")
+                        .append(additive[i]).append(" = ").append(additive[i])
+                        .append(" + new.").append(additive[i]);
+            }
+            return sb.toString();
+        }
+
+        // merge into t using (values (cast(? as ..), ..), ..) s (a, b) on t.id = s.id
+        // when matched then update set n = t.n + s.n when not matched then insert (a, b) values (s.a, s.b)
+        String merge(int rows) {
+            StringBuilder row = new StringBuilder("(");
+            for (int i = 0; i < columns.length; i++) {
+                row.append(i == 0 ? "" : ", ").append("cast(? as ").append(types[i]).append(")");
+            }
+            row.append(")");
+            StringBuilder sb = new StringBuilder("merge into ").append(name).append(" t using (values ")
+                    .append(String.join(", ", Collections.nCopies(rows, row.toString())))
+                    .append(") s (").append(String.join(", ", columns)).append(") on t.id = s.id")
+                    .append(" when matched then update set ");
+            for (int i = 0; i < additive.length; i++) {
+                sb.append(i == 0 ? "" : ", ")
+                        .append(additive[i]).append(" = t.").append(additive[i])
+                        .append(" + s.").append(additive[i]);
+            }
+            sb.append(" when not matched then insert (").append(String.join(", ", columns)).append(") values (");
+            for (int i = 0; i < columns.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append("s.").append(columns[i]);
+            }
+            return sb.append(")").toString();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.qnboke04.techadict.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * ✅ Cập nhật tồn kho nhiều variant bằng MỘT câu UPDATE (CASE theo id), số round trip không phụ thuộc số dòng đơn.
+ */
+public interface StockReservationRepository {
+
+    /**
+     * Trừ tồn kho cho mọi variant trong map (variantId -> số lượng) chỉ ở những dòng còn đủ hàng
+     * và chưa bật hot_reservation.
+     * @return số dòng đã trừ; nhỏ hơn quantities.size() nghĩa là có variant thiếu hàng / không tồn tại / vừa bật hot
+     */
+    int reserveStock(Map<String, Integer> quantities, LocalDateTime now);
+
+    // Cộng trả tồn kho (hủy đơn)
+    int releaseStock(Map<String, Integer> quantities, LocalDateTime now);
+
+    // Trừ tồn kho không điều kiện: ghi xuống DB phần InventoryLedger đã giữ trong bộ nhớ
+    int consumeStock(Map<String, Integer> quantities, LocalDateTime now);
+}
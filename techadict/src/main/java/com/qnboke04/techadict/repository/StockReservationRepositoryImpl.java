@@ -0,0 +1,77 @@
+package com.qnboke04.techadict.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Fragment của ProductVariantRepository (Spring Data tìm theo hậu tố Impl)
+class StockReservationRepositoryImpl implements StockReservationRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int reserveStock(Map<String, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        // Bulk update bỏ qua @PreUpdate và @Version nên tự cập nhật updatedAt, version
+        // Cờ hot được kiểm tra lại dưới khóa dòng: variant vừa bật hot thì tồn kho đã nằm trong InventoryLedger
+        String delta = caseExpression(quantities.size());
+        Query query = entityManager.createQuery(
+                "update ProductVariants v set v.quantity = v.quantity - " + delta + ", v.version = v.version + 1, v.updatedAt = :now"
+                        + " where v.id in :ids and v.quantity >= " + delta
+                        + " and (v.hotReservation is null or v.hotReservation = false)");
+        return bind(query, quantities, now).executeUpdate();
+    }
+
+    @Override
+    public int releaseStock(Map<String, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String delta = caseExpression(quantities.size());
+        Query query = entityManager.createQuery(
+                "update ProductVariants v set v.quantity = coalesce(v.quantity, 0) + " + delta
+                        + ", v.version = v.version + 1, v.updatedAt = :now"
+                        + " where v.id in :ids");
+        return bind(query, quantities, now).executeUpdate();
+    }
+
+    @Override
+    public int consumeStock(Map<String, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String delta = caseExpression(quantities.size());
+        Query query = entityManager.createQuery(
+                "update ProductVariants v set v.quantity = coalesce(v.quantity, 0) - " + delta
+                        + ", v.version = v.version + 1, v.updatedAt = :now"
+                        + " where v.id in :ids");
+        return bind(query, quantities, now).executeUpdate();
+    }
+
+    // (case v.id when :id0 then :qty0 when :id1 then :qty1 ... else 0 end)
+    private static String caseExpression(int size) {
+        StringBuilder sb = new StringBuilder("(case v.id");
+        for (int i = 0; i < size; i++) {
+            sb.append(" when :id").append(i).append(" then :qty").append(i);
+        }
+        return sb.append(" else 0 end)").toString();
+    }
+
+    private static Query bind(Query query, Map<String, Integer> quantities, LocalDateTime now) {
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            query.setParameter("id" + i, entry.getKey());
+            query.setParameter("qty" + i, entry.getValue());
+            i++;
+        }
+        return query
+                .setParameter("ids", quantities.keySet())
+                .setParameter("now", now);
+    }
+}
@@ -3,12 +3,31 @@ package com.qnboke04.techadict.repository;
 import com.qnboke04.techadict.entity.Users;
 import org.apache.catalina.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<Users, String> {
     boolean existsByEmail(String username);
     Optional<Users> findByEmail(String username);
+
+    interface MonthlyCount {
+        Integer getYear();
+        Integer getMonth();
+        Long getTotal();
+    }
+
+    // ✅ Số người dùng mới theo tháng (thống kê)
+    @Query("""
+            select year(u.createdAt) as year, month(u.createdAt) as month, count(u) as total
+            from Users u
+            where u.createdAt >= :from and u.createdAt < :to
+            group by year(u.createdAt), month(u.createdAt)
+            """)
+    List<MonthlyCount> countNewByMonth(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,32 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.event.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Phát OrderEvent lên event bus của Spring; thành phần khác nghe bằng @EventListener(OrderEvent.class).
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "application-events";
+    }
+
+    @Override
+    public void publish(List<OrderEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
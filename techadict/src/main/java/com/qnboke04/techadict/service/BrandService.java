@@ -1,10 +1,13 @@
 package com.qnboke04.techadict.service;
 
 import com.qnboke04.techadict.entity.Brand;
+import com.qnboke04.techadict.event.BrandChangedEvent;
 import com.qnboke04.techadict.repository.BrandRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,6 +18,7 @@ public class BrandService {
 
     private final BrandRepository brandRepository;
     private final IdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 🔹 Tạo brand mới
     public Brand create(Brand brand) {
@@ -39,12 +43,15 @@ public class BrandService {
     }
 
     // 🔹 Cập nhật brand
+    @Transactional
     public Brand update(String id, Brand updated) {
         Brand existing = getById(id);
         existing.setName(updated.getName());
         existing.setCountry(updated.getCountry());
         existing.setLogoUrl(updated.getLogoUrl());
-        return brandRepository.save(existing);
+        Brand saved = brandRepository.save(existing);
+        eventPublisher.publishEvent(new BrandChangedEvent(saved.getId(), saved.getName()));
+        return saved;
     }
 
     // 🔹 Xóa brand
@@ -1,6 +1,10 @@
 package com.qnboke04.techadict.service;
 
+import com.qnboke04.techadict.dto.request.CheckoutRequest;
+import com.qnboke04.techadict.dto.request.OrderItemRequest;
+import com.qnboke04.techadict.dto.request.OrderRequest;
 import com.qnboke04.techadict.dto.response.CartResponse;
+import com.qnboke04.techadict.dto.response.OrderResponse;
 import com.qnboke04.techadict.entity.*;
 import com.qnboke04.techadict.mapper.CartMapper;
 import com.qnboke04.techadict.repository.*;
@@ -9,8 +13,10 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static lombok.AccessLevel.PRIVATE;
 
@@ -26,6 +32,7 @@ public class CartService {
     UserRepository userRepository;
     IdGenerator idGenerator;
     CartMapper cartMapper;
+    OrderService orderService;
 
     // ✅ Lấy giỏ hàng (tự tạo nếu chưa có)
     public CartResponse getCartByUser(String userId) {
@@ -112,6 +119,45 @@ public class CartService {
         return cartMapper.toCartResponse(cartRepository.save(cart));
     }
 
+    /**
+     * ✅ Đặt hàng từ giỏ trong 1 transaction: đọc giỏ bằng 1 query fetch join, tạo đơn + giữ hàng
+     * (OrderService chạy chung transaction), rồi xóa các item đã đặt bằng 1 câu DELETE.
+     * Lỗi ở bất kỳ bước nào → không có đơn và giỏ giữ nguyên.
+     */
+    public OrderResponse checkout(String userId, CheckoutRequest request) {
+        Carts cart = cartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
+
+        Set<String> selected = request.getVariantIds() == null || request.getVariantIds().isEmpty()
+                ? null
+                : new HashSet<>(request.getVariantIds());
+        List<CartItem> items = cart.getItems().stream()
+                .filter(i -> selected == null || selected.contains(i.getVariant().getId()))
+                .toList();
+        if (items.isEmpty()) {
+            throw new RuntimeException("Giỏ hàng trống");
+        }
+        if (selected != null && items.size() < selected.size()) {
+            throw new RuntimeException("Sản phẩm không có trong giỏ hàng");
+        }
+
+        OrderResponse order = orderService.create(OrderRequest.builder()
+                .userId(userId)
+                .addressId(request.getAddressId())
+                .shippingInfo(request.getShippingInfo())
+                .items(items.stream()
+                        .map(i -> OrderItemRequest.builder()
+                                .variantId(i.getVariant().getId())
+                                .quantity(i.getQuantity())
+                                .build())
+                        .toList())
+                .build());
+
+        // 🔹 Collection items của cart không bị sửa nên flush không sinh thêm DELETE
+        cartItemRepository.deleteByIds(items.stream().map(CartItem::getId).toList());
+        return order;
+    }
+
     // ✅ Private helper
     private Carts getOrCreateCart(String userId) {
         return cartRepository.findByUserId(userId)
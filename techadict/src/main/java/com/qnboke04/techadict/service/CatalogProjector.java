@@ -0,0 +1,117 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.CursorPage;
+import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.dto.response.VariantResponse;
+import com.qnboke04.techadict.entity.CatalogView;
+import com.qnboke04.techadict.event.BrandChangedEvent;
+import com.qnboke04.techadict.event.CategoryChangedEvent;
+import com.qnboke04.techadict.event.ProductChangedEvent;
+import com.qnboke04.techadict.event.StockChangedEvent;
+import com.qnboke04.techadict.repository.CatalogViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Phía ghi của read model catalog_view (CQRS).
+ * Nghe ProductChangedEvent / StockChangedEvent / BrandChangedEvent / CategoryChangedEvent sau commit
+ * và cập nhật đúng các dòng bị ảnh hưởng.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@Slf4j
+public class CatalogProjector {
+
+    CatalogViewRepository catalogViewRepository;
+    ProductService productService;
+
+    // ✅ Backfill khi khởi động: chiếu lại toàn bộ sản phẩm theo từng trang, rồi dọn dòng mồ côi
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int projected = 0;
+        String cursor = null;
+        do {
+            CursorPage<ProductResponse> page = productService.getPage(cursor, ProductService.MAX_PAGE_SIZE);
+            catalogViewRepository.saveAll(page.getItems().stream().map(CatalogProjector::project).toList());
+            projected += page.getItems().size();
+            cursor = page.getNext();
+        } while (cursor != null);
+        int removed = catalogViewRepository.deleteOrphans();
+        log.info("Catalog view rebuilt: {} rows projected, {} orphan rows removed", projected, removed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            catalogViewRepository.deleteById(event.productId());
+        } else {
+            catalogViewRepository.save(project(event.product()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onStockChanged(StockChangedEvent event) {
+        if (!event.productIds().isEmpty()) {
+            catalogViewRepository.refreshStock(event.productIds(), LocalDateTime.now());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBrandChanged(BrandChangedEvent event) {
+        catalogViewRepository.renameBrand(event.brandId(), event.name(), LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        catalogViewRepository.renameCategory(event.categoryId(), event.name(), LocalDateTime.now());
+    }
+
+    static CatalogView project(ProductResponse product) {
+        List<VariantResponse> variants = product.getVariants() == null ? List.of() : product.getVariants();
+        List<BigDecimal> prices = variants.stream()
+                .map(VariantResponse::getPrice)
+                .filter(Objects::nonNull)
+                .toList();
+        List<String> images = product.getImages() == null ? List.of() : List.copyOf(product.getImages());
+        String thumbnail = !images.isEmpty()
+                ? images.get(0)
+                : variants.stream().map(VariantResponse::getImageUrl).filter(Objects::nonNull).findFirst().orElse(null);
+
+        return CatalogView.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .categoryName(product.getCategoryName())
+                .brandName(product.getBrandName())
+                .featured(Boolean.TRUE.equals(product.getFeatured()))
+                .originPrice(product.getOrigin_price())
+                .minPrice(prices.stream().min(BigDecimal::compareTo).orElse(product.getOrigin_price()))
+                .maxPrice(prices.stream().max(BigDecimal::compareTo).orElse(product.getOrigin_price()))
+                .totalStock(variants.stream().mapToInt(v -> v.getQuantity() == null ? 0 : v.getQuantity()).sum())
+                .variantCount(variants.size())
+                .thumbnail(thumbnail)
+                .images(images)
+                .createdAt(product.getCreatedAt())
+                .projectedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.CatalogItemResponse;
+import com.qnboke04.techadict.dto.response.CursorPage;
+import com.qnboke04.techadict.entity.CatalogView;
+import com.qnboke04.techadict.mapper.CatalogViewMapper;
+import com.qnboke04.techadict.repository.CatalogViewRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CatalogService {
+    CatalogViewRepository catalogViewRepository;
+    CatalogViewMapper catalogViewMapper;
+
+    // ✅ Đọc catalog từ bảng phẳng catalog_view: 1 query, không join
+    @Transactional(readOnly = true)
+    public CursorPage<CatalogItemResponse> getPage(String cursor, Integer size) {
+        int limit = KeysetPage.limit(size, ProductService.DEFAULT_PAGE_SIZE, ProductService.MAX_PAGE_SIZE);
+        Pageable window = KeysetPage.window(limit);
+        KeysetCursor after = KeysetPage.after(cursor);
+
+        List<CatalogView> rows = after == null
+                ? catalogViewRepository.findFirstPage(window)
+                : catalogViewRepository.findPageAfter(after.keyAsDateTime(), after.id(), window);
+        return KeysetPage.of(rows, limit,
+                last -> KeysetCursor.of(last.getCreatedAt(), last.getId()),
+                page -> page.stream().map(catalogViewMapper::toResponse).toList());
+    }
+}
@@ -0,0 +1,44 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.repository.BrandRepository;
+import com.qnboke04.techadict.repository.CategoryRepository;
+import com.qnboke04.techadict.repository.ProductRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ✅ Tính phiên bản (ETag / Last-Modified) cho các endpoint catalog bằng 1 query aggregate,
+ * chạy trước khi service nạp entity và mapper dựng response.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Transactional(readOnly = true)
+public class CatalogVersionService {
+    ProductRepository productRepository;
+    CategoryRepository categoryRepository;
+    BrandRepository brandRepository;
+
+    public ResourceVersion products() {
+        return productRepository.version();
+    }
+
+    public ResourceVersion categories() {
+        return categoryRepository.version();
+    }
+
+    public ResourceVersion category(String id) {
+        return categoryRepository.versionOf(id);
+    }
+
+    public ResourceVersion brands() {
+        return brandRepository.version();
+    }
+
+    public ResourceVersion brand(String id) {
+        return brandRepository.versionOf(id);
+    }
+}
@@ -1,10 +1,13 @@
 package com.qnboke04.techadict.service;
 
 import com.qnboke04.techadict.entity.Category;
+import com.qnboke04.techadict.event.CategoryChangedEvent;
 import com.qnboke04.techadict.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -16,6 +19,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final IdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
     // 🔹 Tạo category mới
     public Category create(Category category) {
         if (categoryRepository.existsByName(category.getName())) {
@@ -39,12 +43,15 @@ public class CategoryService {
     }
 
     // 🔹 Cập nhật category
+    @Transactional
     public Category update(String id, Category updated) {
         Category existing = getById(id);
         existing.setName(updated.getName());
         existing.setDescription(updated.getDescription());
         existing.setImage(updated.getImage());
-        return categoryRepository.save(existing);
+        Category saved = categoryRepository.save(existing);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId(), saved.getName()));
+        return saved;
     }
 
     // 🔹 Xóa category
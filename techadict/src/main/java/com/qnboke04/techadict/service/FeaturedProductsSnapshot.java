@@ -0,0 +1,108 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.event.ProductChangedEvent;
+import com.qnboke04.techadict.event.StockChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Snapshot bất biến của danh sách sản phẩm nổi bật cho trang chủ.
+ * Đọc = 1 lần AtomicReference.get(), không khóa, không chạm DB.
+ * Ghi (sau commit) dựng list mới rồi swap cả tham chiếu; các writer được tuần tự hóa bằng synchronized.
+ * Đổi tồn kho (đặt / hủy đơn) chỉ đánh dấu sản phẩm cần nạp lại; job nền gom lại và nạp 1 lần,
+ * nên luồng đặt hàng không chờ khóa hay query nạp lại.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@Slf4j
+public class FeaturedProductsSnapshot {
+
+    // Cùng thứ tự với GET /products: mới nhất trước
+    private static final Comparator<ProductResponse> NEWEST_FIRST = Comparator
+            .comparing(ProductResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductResponse::getId, Comparator.reverseOrder());
+
+    ProductService productService;
+
+    AtomicReference<List<ProductResponse>> snapshot = new AtomicReference<>(List.of());
+
+    // Sản phẩm nổi bật vừa đổi tồn kho, chờ nạp lại
+    Set<String> stale = ConcurrentHashMap.newKeySet();
+
+    public List<ProductResponse> get() {
+        return snapshot.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        snapshot.set(List.copyOf(productService.getFeatured()));
+        log.info("Featured products snapshot built: {} products", snapshot.get().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        List<ProductResponse> current = snapshot.get();
+        boolean present = current.stream().anyMatch(p -> p.getId().equals(event.productId()));
+        boolean featured = !event.isDeleted() && Boolean.TRUE.equals(event.product().getFeatured());
+        if (!present && !featured) {
+            return; // sản phẩm thường → snapshot không đổi
+        }
+
+        List<ProductResponse> next = new ArrayList<>(current.size() + 1);
+        current.stream()
+                .filter(p -> !p.getId().equals(event.productId()))
+                .forEach(next::add);
+        if (featured) {
+            next.add(event.product());
+        }
+        next.sort(NEWEST_FIRST);
+        snapshot.set(List.copyOf(next));
+    }
+
+    // ✅ Đặt / hủy đơn làm đổi tồn kho variant → chỉ đánh dấu sản phẩm nổi bật bị ảnh hưởng (không khóa, không query)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        for (ProductResponse product : snapshot.get()) {
+            if (event.productIds().contains(product.getId())) {
+                stale.add(product.getId());
+            }
+        }
+    }
+
+    // ✅ Nạp lại 1 lần cho mọi sản phẩm đã đánh dấu từ lần chạy trước (flash sale: nhiều đơn → 1 lần nạp)
+    @Scheduled(fixedDelayString = "${product.featured.stock-refresh-interval:PT1S}")
+    public synchronized void refreshStale() {
+        if (stale.isEmpty()) {
+            return;
+        }
+        List<String> affected = new ArrayList<>();
+        for (Iterator<String> it = stale.iterator(); it.hasNext(); ) {
+            affected.add(it.next());
+            it.remove();
+        }
+
+        List<ProductResponse> current = snapshot.get();
+        Map<String, ProductResponse> refreshed = productService.getByIds(affected).stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        snapshot.set(current.stream()
+                .filter(p -> !affected.contains(p.getId()) || refreshed.containsKey(p.getId()))
+                .map(p -> refreshed.getOrDefault(p.getId(), p))
+                .toList());
+    }
+}
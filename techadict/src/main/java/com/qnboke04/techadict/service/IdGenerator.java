@@ -5,12 +5,17 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class IdGenerator {
+    // Bộ đếm trong tiến trình: nhiều id sinh cùng một giây (VD: các dòng của một đơn) không trùng nhau
+    private final AtomicInteger sequence = new AtomicInteger();
+
     public String generate(String prefix){
         String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         int random = ThreadLocalRandom.current().nextInt(100, 999);
-        return String.format("%s-%s-%d", prefix, time, random);
+        int seq = Math.floorMod(sequence.getAndIncrement(), 1000);
+        return String.format("%s-%s-%d%03d", prefix, time, random, seq);
     }
 }
@@ -0,0 +1,179 @@
+package com.qnboke04.techadict.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qnboke04.techadict.dto.response.OrderResponse;
+import com.qnboke04.techadict.enums.IdempotentOperation;
+import com.qnboke04.techadict.entity.IdempotencyKey;
+import com.qnboke04.techadict.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * ✅ Chống tạo đơn trùng khi client gửi lại POST /orders với cùng Idempotency-Key.
+ * - Bộ nhớ (Caffeine): key -> future của lần chạy đầu; bản sao đồng thời chờ trên future đó
+ *   thay vì giữ hàng lần hai.
+ * - DB (idempotency_keys, có TTL): lưu OrderResponse để phát lại sau khi cache bị đẩy ra,
+ *   sau khi restart, hoặc khi bản sao rơi vào instance khác.
+ * Lần chạy lỗi không được ghi nhớ, client có thể thử lại với cùng key.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, Execution> executions;
+
+    // Lần chạy gắn với một key: fingerprint của request + kết quả (có thể đang chạy)
+    private record Execution(String fingerprint, CompletableFuture<OrderResponse> result) {
+    }
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${order.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${order.idempotency.cache-size:10000}") long cacheSize) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param operation endpoint dùng key: key gửi cho POST /orders không phát lại kết quả của ?mode=async
+     *                  (202, đơn còn PROCESSING) hay của checkout và ngược lại
+     * @param scope   phạm vi của key (userId) để key của người này không phát lại đơn của người khác
+     * @param key     giá trị header Idempotency-Key
+     * @param request body gốc, dùng để phát hiện key bị dùng lại cho yêu cầu khác
+     * @param action  tạo đơn; chạy trong cùng transaction với việc ghi key
+     */
+    public OrderResponse execute(IdempotentOperation operation, String scope, String key, Object request,
+                                 Supplier<OrderResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key không hợp lệ (1-" + MAX_KEY_LENGTH + " ký tự)");
+        }
+        String id = operation.getPrefix() + ":" + scope + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        Execution mine = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing = executions.asMap().putIfAbsent(id, mine);
+        if (existing != null) {
+            return await(existing, fingerprint);
+        }
+
+        try {
+            OrderResponse response = loadStored(id, fingerprint)
+                    .orElseGet(() -> runOnce(id, fingerprint, action));
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            executions.invalidate(id);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // ✅ Dọn key hết hạn trong DB
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private OrderResponse runOnce(String id, String fingerprint, Supplier<OrderResponse> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                repository.deleteIfExpired(id, now);
+                // Giữ chỗ trước: bản sao ở instance khác sẽ chờ khóa chính rồi lỗi trùng key,
+                // không chạm tới tồn kho
+                IdempotencyKey record = repository.saveAndFlush(IdempotencyKey.builder()
+                        .id(id)
+                        .requestHash(fingerprint)
+                        .expiresAt(now.plus(ttl))
+                        .build());
+
+                OrderResponse response = action.get();
+                record.setOrderId(response.getId());
+                record.setResponse(write(response));
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Instance khác đã commit cùng key → transaction này rollback, phát lại kết quả đã lưu
+            return loadStored(id, fingerprint).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<OrderResponse> loadStored(String id, String fingerprint) {
+        return repository.findById(id)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .filter(record -> record.getResponse() != null)
+                .map(record -> {
+                    checkFingerprint(record.getRequestHash(), fingerprint);
+                    return read(record.getResponse());
+                });
+    }
+
+    private OrderResponse await(Execution existing, String fingerprint) {
+        checkFingerprint(existing.fingerprint(), fingerprint);
+        try {
+            return existing.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void checkFingerprint(String stored, String actual) {
+        if (!stored.equals(actual)) {
+            throw new RuntimeException("Idempotency-Key đã được dùng cho một yêu cầu khác");
+        }
+    }
+
+    private String fingerprint(Object request) {
+        return DigestUtils.md5DigestAsHex(write(request).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private OrderResponse read(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored order response", e);
+        }
+    }
+}
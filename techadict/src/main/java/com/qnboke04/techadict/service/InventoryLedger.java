@@ -0,0 +1,430 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.HotVariantResponse;
+import com.qnboke04.techadict.event.StockChangedEvent;
+import com.qnboke04.techadict.repository.OrderItemRepository;
+import com.qnboke04.techadict.repository.OrderItemRepository.PendingStock;
+import com.qnboke04.techadict.repository.ProductVariantRepository;
+import com.qnboke04.techadict.entity.ProductVariants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Sổ giữ hàng trong bộ nhớ cho SKU "hot" (flash sale), admin bật theo từng variant.
+ *
+ * - Nhận / từ chối giữ hàng bằng CAS trên các stripe (không khóa, không chạm dòng product_variants),
+ *   nên hàng nghìn đơn cùng SKU không xếp hàng chờ row lock của MySQL.
+ * - Dòng đơn giữ hàng qua ledger được đánh dấu order_items.stock_pending = true, commit cùng đơn.
+ * - Job định kỳ gom các dòng pending, trừ vào product_variants bằng 1 câu UPDATE rồi xóa cờ,
+ *   tất cả trong 1 transaction.
+ * - Khởi động: ghi nốt các dòng còn pending (sau crash), rồi mới nạp số tồn vào ledger.
+ * - Tắt hot: chặn giữ hàng mới, chờ các đơn đã giữ commit / rollback xong, rồi mới ghi phần pending
+ *   và xóa cờ dưới khóa dòng variant — đơn đi đường DB luôn thấy số tồn đã trừ đủ.
+ *
+ * Khi SKU đang hot, tồn kho nên được sửa sau khi tắt hot (ledger không thấy thay đổi ghi thẳng vào DB).
+ */
+@Component
+@Slf4j
+public class InventoryLedger {
+    private static final int FLUSH_CHUNK = 1000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+    private static final long DRAIN_POLL_MILLIS = 5;
+
+    private final ProductVariantRepository variantRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int stripes;
+
+    // variantId -> số tồn còn nhận giữ được
+    private final Map<String, StripedStock> counters = new ConcurrentHashMap<>();
+
+    public InventoryLedger(ProductVariantRepository variantRepository,
+                           OrderItemRepository orderItemRepository,
+                           TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${inventory.ledger.stripes:8}") int stripes) {
+        this.variantRepository = variantRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.stripes = stripes;
+    }
+
+    // ✅ Đối soát khi khởi động: phần đã giữ trước khi tắt / crash được ghi xuống DB trước khi nạp lại counter
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        int flushed = flushPending();
+        List<String> hot = variantRepository.findHotReservationIds();
+        hot.forEach(this::load);
+        log.info("Inventory ledger ready: {} pending lines flushed, {} hot variants", flushed, hot.size());
+    }
+
+    public boolean isHot(String variantId) {
+        return counters.containsKey(variantId);
+    }
+
+    public Map<String, Integer> hotSubset(Map<String, Integer> requested) {
+        return requested.entrySet().stream()
+                .filter(e -> isHot(e.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Integer::sum, TreeMap::new));
+    }
+
+    /**
+     * ✅ Giữ hàng trong bộ nhớ cho các variant hot, tất cả hoặc không gì cả.
+     * Nếu transaction hiện tại rollback, phần đã giữ tự được trả lại.
+     * Variant đang được tắt hot thì từ chối bằng lỗi xung đột: gọi awaitDrained rồi đặt lại qua DB.
+     *
+     * @return variantId không đủ hàng, hoặc null nếu đã giữ đủ
+     */
+    public String reserve(Map<String, Integer> hot) {
+        // Giữ đúng counter đã trừ: counter bị thay / gỡ giữa chừng thì không trả nhầm chỗ
+        Map<StripedStock, Integer> reserved = new IdentityHashMap<>();
+        for (Map.Entry<String, Integer> entry : hot.entrySet()) {
+            StripedStock stock = counters.get(entry.getKey());
+            if (stock != null && !stock.enter()) {
+                settle(reserved, false);
+                throw new ObjectOptimisticLockingFailureException(ProductVariants.class, entry.getKey());
+            }
+            if (stock == null || !stock.tryReserve(entry.getValue())) {
+                if (stock != null) {
+                    stock.exit();
+                }
+                settle(reserved, false);
+                return entry.getKey();
+            }
+            reserved.put(stock, entry.getValue());
+        }
+        if (reserved.isEmpty()) {
+            return null;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            settle(reserved, true);
+            return null;
+        }
+        // Đến khi transaction kết thúc, disable() phải chờ các phần giữ này
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settle(reserved, status == STATUS_COMMITTED);
+            }
+        });
+        return null;
+    }
+
+    // ✅ Chờ các variant đang tắt hot tắt xong (có giới hạn thời gian) để đơn đi thẳng đường DB
+    public void awaitDrained(Collection<String> variantIds) {
+        for (String variantId : variantIds) {
+            StripedStock stock = counters.get(variantId);
+            if (stock != null) {
+                stock.awaitDrained(DRAIN_TIMEOUT);
+            }
+        }
+    }
+
+    // ✅ Hủy đơn: trả hàng về ledger sau khi commit (DB đã được cộng trong transaction hủy)
+    public void releaseAfterCommit(Map<String, Integer> quantities) {
+        Map<String, Integer> hot = hotSubset(quantities);
+        if (hot.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hot.forEach(this::release);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hot.forEach(InventoryLedger.this::release);
+            }
+        });
+    }
+
+    // ================= Admin =================
+
+    /**
+     * Bật cờ và nạp counter trong cùng 1 transaction: UPDATE cờ giữ khóa dòng variant đến khi commit,
+     * nên đơn đi đường DB đã trừ xong thì số tồn nạp vào đã phản ánh, còn đơn đang chờ khóa sẽ thấy
+     * cờ hot và không trừ nữa (xem StockReservationRepository.reserveStock).
+     */
+    public synchronized HotVariantResponse enable(String variantId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (variantRepository.setHotReservation(variantId, true) == 0) {
+                    throw new IllegalArgumentException("Variant not found: " + variantId);
+                }
+                load(variantId);
+            });
+        } catch (RuntimeException e) {
+            counters.remove(variantId);
+            throw e;
+        }
+        return describe(variantId);
+    }
+
+    /**
+     * Tắt hot theo thứ tự: chặn giữ hàng mới trên counter → chờ mọi phần đã giữ commit / rollback xong
+     * → trong 1 transaction, khóa dòng variant, ghi các dòng pending của variant rồi mới xóa cờ.
+     * Đơn đi đường DB chờ khóa dòng nên chỉ thấy cờ tắt khi quantity đã trừ đủ phần pending.
+     */
+    public synchronized HotVariantResponse disable(String variantId) {
+        StripedStock stock = counters.get(variantId);
+        try {
+            if (stock != null) {
+                stock.startDrain();
+                stock.awaitIdle(DRAIN_TIMEOUT);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (variantRepository.findForUpdate(variantId).isEmpty()) {
+                    throw new IllegalArgumentException("Variant not found: " + variantId);
+                }
+                flush(orderItemRepository.findPendingStockOf(variantId));
+                variantRepository.setHotReservation(variantId, false);
+            });
+        } catch (RuntimeException e) {
+            if (stock != null) {
+                stock.finishDrain(false);
+            }
+            throw e;
+        }
+        if (stock != null) {
+            counters.remove(variantId, stock);
+            stock.finishDrain(true);
+        }
+        return HotVariantResponse.builder().variantId(variantId).enabled(false).build();
+    }
+
+    public List<HotVariantResponse> list() {
+        return counters.keySet().stream().sorted().map(this::describe).toList();
+    }
+
+    // ================= Ghi xuống DB =================
+
+    /**
+     * ✅ Gom mọi dòng đơn pending theo variant, trừ tồn kho bằng 1 câu UPDATE và xóa cờ pending
+     * trong cùng transaction — crash giữa chừng thì cả hai cùng rollback, lần sau làm lại.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval:PT1S}")
+    public synchronized int flushPending() {
+        Integer flushed = transactionTemplate.execute(status -> flush(orderItemRepository.findPendingStock()));
+        return flushed == null ? 0 : flushed;
+    }
+
+    // Chạy trong transaction của người gọi
+    private int flush(List<PendingStock> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<String, Integer> byVariant = pending.stream()
+                .collect(Collectors.toMap(PendingStock::getVariantId, PendingStock::getQuantity,
+                        Integer::sum, TreeMap::new));
+        LocalDateTime now = LocalDateTime.now();
+        variantRepository.consumeStock(byVariant, now);
+
+        List<String> ids = pending.stream().map(PendingStock::getId).toList();
+        for (int from = 0; from < ids.size(); from += FLUSH_CHUNK) {
+            orderItemRepository.clearStockPending(ids.subList(from, Math.min(from + FLUSH_CHUNK, ids.size())));
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(pending.stream()
+                .map(PendingStock::getProductId)
+                .collect(Collectors.toSet())));
+        return pending.size();
+    }
+
+    // Số tồn nhận giữ được = quantity trong DB - phần pending chưa ghi xuống (tham gia transaction đang mở nếu có)
+    private void load(String variantId) {
+        Integer available = transactionTemplate.execute(status -> variantRepository.findForUpdate(variantId)
+                .map(v -> (int) (Optional.ofNullable(v.getQuantity()).orElse(0)
+                        - orderItemRepository.sumPendingStock(variantId)))
+                .orElse(null));
+        if (available != null) {
+            counters.put(variantId, new StripedStock(stripes, Math.max(available, 0)));
+        }
+    }
+
+    // Kết thúc các phần giữ của 1 transaction; chưa commit thì trả hàng về đúng counter đã trừ
+    private static void settle(Map<StripedStock, Integer> reserved, boolean committed) {
+        reserved.forEach((stock, quantity) -> {
+            if (!committed) {
+                stock.release(quantity);
+            }
+            stock.exit();
+        });
+    }
+
+    private void release(String variantId, int quantity) {
+        StripedStock stock = counters.get(variantId);
+        if (stock != null) {
+            stock.release(quantity);
+        }
+    }
+
+    private HotVariantResponse describe(String variantId) {
+        StripedStock stock = counters.get(variantId);
+        return HotVariantResponse.builder()
+                .variantId(variantId)
+                .enabled(stock != null)
+                .available(stock == null ? null : stock.available())
+                .build();
+    }
+
+    /**
+     * Số tồn chia đều cho N stripe; mỗi luồng bắt đầu từ một stripe ngẫu nhiên nên CAS ít đụng nhau.
+     * Các stripe cách nhau 16 int (64 byte) để không chung cache line.
+     * inFlight đếm số transaction đang giữ hàng trên counter mà chưa kết thúc (disable() chờ về 0).
+     */
+    static final class StripedStock {
+        private static final int PAD = 16;
+
+        private final int count;
+        private final AtomicIntegerArray slots;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile CountDownLatch drained;
+        private volatile boolean draining;
+
+        StripedStock(int count, int total) {
+            this.count = Math.max(1, count);
+            this.slots = new AtomicIntegerArray(this.count * PAD);
+            for (int i = 0; i < this.count; i++) {
+                slots.set(i * PAD, total / this.count + (i < total % this.count ? 1 : 0));
+            }
+        }
+
+        boolean tryReserve(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(count);
+            // Đường nhanh: một stripe đủ hàng
+            for (int i = 0; i < count; i++) {
+                if (tryTake((start + i) % count, quantity)) {
+                    return true;
+                }
+            }
+            // Đường chậm: gom từ nhiều stripe, không đủ thì trả lại
+            int[] taken = new int[count];
+            int remaining = quantity;
+            for (int i = 0; i < count && remaining > 0; i++) {
+                int stripe = (start + i) % count;
+                taken[stripe] = takeUpTo(stripe, remaining);
+                remaining -= taken[stripe];
+            }
+            if (remaining == 0) {
+                return true;
+            }
+            for (int stripe = 0; stripe < count; stripe++) {
+                if (taken[stripe] > 0) {
+                    slots.addAndGet(stripe * PAD, taken[stripe]);
+                }
+            }
+            return false;
+        }
+
+        // Tăng inFlight trước rồi mới kiểm tra cờ: disable() bật cờ rồi mới đếm nên không lọt phần giữ nào
+        boolean enter() {
+            inFlight.incrementAndGet();
+            if (draining) {
+                inFlight.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+
+        void startDrain() {
+            drained = new CountDownLatch(1);
+            draining = true;
+        }
+
+        // removed = false: tắt thất bại, counter tiếp tục nhận giữ hàng
+        void finishDrain(boolean removed) {
+            if (!removed) {
+                draining = false;
+            }
+            drained.countDown();
+        }
+
+        void awaitIdle(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (inFlight.get() > 0) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Hot reservations still in flight: " + inFlight.get());
+                }
+                try {
+                    Thread.sleep(DRAIN_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while draining hot reservations", e);
+                }
+            }
+        }
+
+        void awaitDrained(Duration timeout) {
+            if (!draining) {
+                return;
+            }
+            try {
+                drained.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void release(int quantity) {
+            slots.addAndGet(ThreadLocalRandom.current().nextInt(count) * PAD, quantity);
+        }
+
+        int available() {
+            int sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += slots.get(i * PAD);
+            }
+            return sum;
+        }
+
+        private boolean tryTake(int stripe, int quantity) {
+            while (true) {
+                int current = slots.get(stripe * PAD);
+                if (current < quantity) {
+                    return false;
+                }
+                if (slots.compareAndSet(stripe * PAD, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        private int takeUpTo(int stripe, int wanted) {
+            while (true) {
+                int current = slots.get(stripe * PAD);
+                if (current <= 0) {
+                    return 0;
+                }
+                int take = Math.min(current, wanted);
+                if (slots.compareAndSet(stripe * PAD, current, current - take)) {
+                    return take;
+                }
+            }
+        }
+    }
+}
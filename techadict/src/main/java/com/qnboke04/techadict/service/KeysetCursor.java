@@ -0,0 +1,62 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.exception.AppException;
+import com.qnboke04.techadict.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * ✅ Cursor cho phân trang keyset: (giá trị khóa sắp xếp, id) của bản ghi cuối trang.
+ * Client chỉ nhận chuỗi Base64 "mờ", không cần biết cấu trúc bên trong.
+ */
+public record KeysetCursor(String key, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0 || sep == raw.length() - 1) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return new KeysetCursor(raw.substring(0, sep), raw.substring(sep + 1));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public static KeysetCursor of(LocalDateTime key, String id) {
+        return new KeysetCursor(key.toString(), id);
+    }
+
+    public static KeysetCursor of(BigDecimal key, String id) {
+        return new KeysetCursor(key.toPlainString(), id);
+    }
+
+    public BigDecimal keyAsDecimal() {
+        try {
+            return new BigDecimal(key);
+        } catch (NumberFormatException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
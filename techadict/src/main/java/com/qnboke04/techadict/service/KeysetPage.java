@@ -0,0 +1,48 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ✅ Phần chung của mọi trang keyset: giới hạn cỡ trang, giải mã cursor, đọc dư 1 dòng để biết
+ * còn trang sau hay không và tạo cursor từ dòng cuối trang.
+ */
+public final class KeysetPage {
+
+    private KeysetPage() {
+    }
+
+    public static int limit(Integer size, int defaultSize, int maxSize) {
+        return size == null || size <= 0 ? defaultSize : Math.min(size, maxSize);
+    }
+
+    // null = trang đầu
+    public static KeysetCursor after(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+    }
+
+    // Lấy dư 1 bản ghi để biết còn trang sau hay không
+    public static Pageable window(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * @param rows     tối đa limit + 1 dòng theo đúng thứ tự sắp xếp
+     * @param cursorOf khóa sắp xếp của 1 dòng (dùng cho dòng cuối trang)
+     * @param mapper   chuyển các dòng của trang thành kết quả trả về
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int limit,
+                                          Function<R, KeysetCursor> cursorOf,
+                                          Function<List<R>, List<T>> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<R> page = hasMore ? rows.subList(0, limit) : rows;
+        return CursorPage.<T>builder()
+                .items(mapper.apply(page))
+                .next(hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+}
@@ -0,0 +1,236 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.OrderExpiryRunResponse;
+import com.qnboke04.techadict.dto.response.OrderExpiryStatsResponse;
+import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentMethod;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import com.qnboke04.techadict.event.StockChangedEvent;
+import com.qnboke04.techadict.repository.OrderItemRepository;
+import com.qnboke04.techadict.repository.OrderItemRepository.VariantQuantity;
+import com.qnboke04.techadict.repository.OrderRepository;
+import com.qnboke04.techadict.repository.OrderRepository.OrderState;
+import com.qnboke04.techadict.repository.PaymentRepository;
+import com.qnboke04.techadict.repository.ProductVariantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Hủy đơn BANK chờ thanh toán quá hạn và hoàn kho (trước đây chỉ người dùng tự hủy mới trả hàng).
+ *
+ * - Duyệt đơn quá hạn theo trang (keyset trên index (status, created_at)), mỗi trang 1 transaction.
+ * - Mỗi trang: 1 UPDATE có điều kiện (status + version) cho đơn, 1 UPDATE cho thanh toán,
+ *   1 UPDATE cộng tồn kho đã gộp theo variant, outbox + rollup ghi gom — không nạp đồ thị đơn.
+ * - Đơn vừa được thanh toán / đổi ở nơi khác làm trang thất bại → thử lại, rồi xử lý riêng từng đơn.
+ */
+@Component
+@Slf4j
+public class OrderExpirySweeper {
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final PaymentRepository paymentRepository;
+    private final ProductVariantRepository variantRepository;
+    private final InventoryLedger inventoryLedger;
+    private final OrderOutbox orderOutbox;
+    private final SalesRollup salesRollup;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int batchSize;
+
+    // Số liệu từ khi khởi động (xem qua /admin/orders/expiry)
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalCanceled = new AtomicLong();
+    private final AtomicLong totalReleasedUnits = new AtomicLong();
+    private volatile OrderExpiryRunResponse lastRun;
+
+    public OrderExpirySweeper(OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              PaymentRepository paymentRepository,
+                              ProductVariantRepository variantRepository,
+                              InventoryLedger inventoryLedger,
+                              OrderOutbox orderOutbox,
+                              SalesRollup salesRollup,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${order.expiry.ttl:PT24H}") Duration ttl,
+                              @Value("${order.expiry.batch-size:200}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.paymentRepository = paymentRepository;
+        this.variantRepository = variantRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.orderOutbox = orderOutbox;
+        this.salesRollup = salesRollup;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${order.expiry.interval:PT1M}")
+    public synchronized OrderExpiryRunResponse sweep() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long began = System.currentTimeMillis();
+        LocalDateTime cutoff = startedAt.minus(ttl);
+
+        int pages = 0, scanned = 0, canceled = 0;
+        Map<String, Long> released = new TreeMap<>();
+        LocalDateTime afterCreatedAt = EPOCH;
+        String afterId = "";
+        while (true) {
+            Batch batch = cancelPage(cutoff, afterCreatedAt, afterId);
+            if (batch.scanned() == 0) {
+                break;
+            }
+            pages++;
+            scanned += batch.scanned();
+            canceled += batch.canceled();
+            batch.released().forEach((variantId, quantity) -> released.merge(variantId, quantity, Long::sum));
+            if (batch.scanned() < batchSize) {
+                break;
+            }
+            afterCreatedAt = batch.lastCreatedAt();
+            afterId = batch.lastId();
+        }
+
+        long units = released.values().stream().mapToLong(Long::longValue).sum();
+        OrderExpiryRunResponse run = OrderExpiryRunResponse.builder()
+                .startedAt(startedAt)
+                .durationMillis(System.currentTimeMillis() - began)
+                .cutoff(cutoff)
+                .pages(pages)
+                .scanned(scanned)
+                .canceled(canceled)
+                .conflicts(scanned - canceled)
+                .releasedUnits(units)
+                .releasedByVariant(released)
+                .build();
+        runs.incrementAndGet();
+        totalCanceled.addAndGet(canceled);
+        totalReleasedUnits.addAndGet(units);
+        lastRun = run;
+        if (scanned > 0) {
+            log.info("Order expiry: canceled {}/{} orders in {} pages, released {} units of {} variants in {} ms",
+                    canceled, scanned, pages, units, released.size(), run.getDurationMillis());
+        }
+        return run;
+    }
+
+    public OrderExpiryStatsResponse stats() {
+        return OrderExpiryStatsResponse.builder()
+                .ttl(ttl)
+                .batchSize(batchSize)
+                .runs(runs.get())
+                .totalCanceled(totalCanceled.get())
+                .totalReleasedUnits(totalReleasedUnits.get())
+                .lastRun(lastRun)
+                .build();
+    }
+
+    // Mỗi lần thử đọc lại trang trong transaction mới; hết lượt thì xử lý riêng từng đơn của trang
+    private Batch cancelPage(LocalDateTime cutoff, LocalDateTime afterCreatedAt, String afterId) {
+        for (int attempt = 1; attempt <= MAX_CONFLICT_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status ->
+                        cancelAll(findExpired(cutoff, afterCreatedAt, afterId)));
+            } catch (OptimisticLockingFailureException e) {
+                // đơn trong trang vừa bị đổi → đọc lại trang
+            }
+        }
+        List<OrderState> page = findExpired(cutoff, afterCreatedAt, afterId);
+        int canceled = 0;
+        Map<String, Long> released = new TreeMap<>();
+        for (OrderState candidate : page) {
+            try {
+                Batch single = transactionTemplate.execute(status -> cancelAll(
+                        orderRepository.findStates(List.of(candidate.getId())).stream()
+                                .filter(state -> isExpired(state, cutoff))
+                                .toList()));
+                canceled += single.canceled();
+                single.released().forEach((variantId, quantity) -> released.merge(variantId, quantity, Long::sum));
+            } catch (OptimisticLockingFailureException e) {
+                log.debug("Order expiry: {} changed concurrently, skipped", candidate.getId());
+            }
+        }
+        OrderState last = page.isEmpty() ? null : page.getLast();
+        return new Batch(page.size(), canceled, released,
+                last == null ? null : last.getCreatedAt(), last == null ? null : last.getId());
+    }
+
+    private List<OrderState> findExpired(LocalDateTime cutoff, LocalDateTime afterCreatedAt, String afterId) {
+        return orderRepository.findExpired(OrderStatus.PENDING, PaymentMethod.BANK, PaymentStatus.PENDING,
+                cutoff, afterCreatedAt, afterId, PageRequest.of(0, batchSize));
+    }
+
+    private static boolean isExpired(OrderState state, LocalDateTime cutoff) {
+        return state.getStatus() == OrderStatus.PENDING
+                && state.getPaymentStatus() == PaymentStatus.PENDING
+                && state.getCreatedAt().isBefore(cutoff);
+    }
+
+    /**
+     * Hủy các đơn đã đọc (trong transaction hiện tại) bằng các câu UPDATE gom cả nhóm.
+     * Có đơn vừa bị người khác đổi (trạng thái, thanh toán) → ném OptimisticLockingFailureException, rollback cả nhóm.
+     */
+    private Batch cancelAll(List<OrderState> orders) {
+        if (orders.isEmpty()) {
+            return new Batch(0, 0, Map.of(), null, null);
+        }
+        OrderState last = orders.getLast();
+        Map<String, Long> versions = orders.stream()
+                .collect(Collectors.toMap(OrderState::getId, OrderState::getVersion, (a, b) -> a, TreeMap::new));
+        List<String> ids = List.copyOf(versions.keySet());
+
+        // Số liệu rollup + số lượng hoàn kho đọc trước khi đổi trạng thái
+        var statusTotals = orderRepository.sumDailyByStatusOf(ids, PaymentStatus.SUCCESS);
+        var variantTotals = orderItemRepository.sumDailyByVariantOf(ids);
+        List<VariantQuantity> quantities = orderItemRepository.sumQuantityByVariantOf(ids);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.transitionAll(versions, OrderStatus.PENDING, OrderStatus.CANCELED) < ids.size()
+                || paymentRepository.updateStatusOf(ids, PaymentStatus.PENDING, PaymentStatus.FAILED, now) < ids.size()) {
+            throw new ObjectOptimisticLockingFailureException(Orders.class, ids.toString());
+        }
+
+        // Hoàn kho: 1 câu UPDATE cộng trực tiếp cho mọi variant; SKU hot trả lại ledger sau commit
+        Map<String, Integer> released = quantities.stream()
+                .collect(Collectors.toMap(VariantQuantity::getVariantId, q -> Math.toIntExact(q.getQuantity()),
+                        Integer::sum, TreeMap::new));
+        if (!released.isEmpty()) {
+            variantRepository.releaseStock(released, now);
+            inventoryLedger.releaseAfterCommit(released);
+        }
+
+        orderOutbox.recordExpired(orders, PaymentStatus.FAILED);
+        salesRollup.move(statusTotals, variantTotals, OrderStatus.CANCELED);
+        eventPublisher.publishEvent(new StockChangedEvent(quantities.stream()
+                .map(VariantQuantity::getProductId)
+                .collect(Collectors.toSet())));
+
+        return new Batch(orders.size(), orders.size(),
+                quantities.stream().collect(Collectors.toMap(VariantQuantity::getVariantId, VariantQuantity::getQuantity)),
+                last.getCreatedAt(), last.getId());
+    }
+
+    private record Batch(int scanned, int canceled, Map<String, Long> released,
+                         LocalDateTime lastCreatedAt, String lastId) {
+    }
+}
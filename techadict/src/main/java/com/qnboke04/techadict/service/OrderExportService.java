@@ -0,0 +1,160 @@
+package com.qnboke04.techadict.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qnboke04.techadict.enums.ExportFormat;
+import com.qnboke04.techadict.repository.OrderExportRepository;
+import com.qnboke04.techadict.repository.OrderExportRepository.ExportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * ✅ Xuất đơn hàng (mỗi dòng đơn 1 dòng) ra CSV / NDJSON cho kế toán.
+ *
+ * - Đọc bằng Stream từ DB (fetch size, pool kết nối riêng — xem OrderExportRepository) và ghi thẳng ra response,
+ *   nên bộ nhớ không phụ thuộc số đơn: chỉ giữ 1 lô fetch size + buffer ghi.
+ * - Chạy trên luồng async của StreamingResponseBody, trong 1 transaction chỉ đọc mở đến khi ghi xong.
+ * - Ô CSV dạng chữ bắt đầu bằng = + - @ tab / CR được thêm ' phía trước để Excel không chạy như công thức.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Thứ tự cột dùng chung cho header CSV và key NDJSON
+    private static final List<Column> COLUMNS = List.of(
+            new Column("orderId", ExportRow::orderId),
+            new Column("createdAt", ExportRow::createdAt),
+            new Column("status", ExportRow::status),
+            new Column("userId", ExportRow::userId),
+            new Column("email", ExportRow::email),
+            new Column("totalAmount", ExportRow::totalAmount),
+            new Column("paymentMethod", ExportRow::paymentMethod),
+            new Column("paymentStatus", ExportRow::paymentStatus),
+            new Column("productName", ExportRow::productName),
+            new Column("variantName", ExportRow::variantName),
+            new Column("color", ExportRow::color),
+            new Column("storage", ExportRow::storage),
+            new Column("quantity", ExportRow::quantity),
+            new Column("price", ExportRow::price),
+            new Column("subtotal", ExportRow::subtotal)
+    );
+
+    private final OrderExportRepository orderExportRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderExportRepository orderExportRepository, ObjectMapper objectMapper) {
+        this.orderExportRepository = orderExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public String fileName(ExportFormat format, LocalDate from, LocalDate to) {
+        return "orders_" + first(from) + "_" + last(to) + "." + format.getExtension();
+    }
+
+    // from / to: tính trọn ngày; bỏ trống = không giới hạn
+    public StreamingResponseBody export(ExportFormat format, LocalDate from, LocalDate to) {
+        LocalDateTime start = first(from).atStartOfDay();
+        LocalDateTime end = last(to).plusDays(1).atStartOfDay();
+        return out -> {
+            long began = System.currentTimeMillis();
+            Long rows = orderExportRepository.read(start, end, stream -> {
+                try {
+                    return format == ExportFormat.CSV ? writeCsv(stream, out) : writeNdjson(stream, out);
+                } catch (IOException e) {
+                    // Client ngắt kết nối giữa chừng → dừng đọc, đóng cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Order export {} [{}, {}): {} rows in {} ms",
+                    format, start, end, rows, System.currentTimeMillis() - began);
+        };
+    }
+
+    private long writeCsv(Stream<ExportRow> stream, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write('\uFEFF'); // BOM để Excel nhận đúng tiếng Việt
+        writer.write(String.join(",", COLUMNS.stream().map(Column::name).toList()));
+        writer.write("\r\n");
+
+        long count = 0;
+        for (ExportRow row : (Iterable<ExportRow>) stream::iterator) {
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                writer.write(csv(COLUMNS.get(c).value().apply(row)));
+            }
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Stream<ExportRow> stream, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(
+                new BufferedOutputStream(out, BUFFER_SIZE), JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // stream response do Spring đóng
+            json.setRootValueSeparator(null);
+            for (ExportRow row : (Iterable<ExportRow>) stream::iterator) {
+                json.writeStartObject();
+                for (Column column : COLUMNS) {
+                    Object value = column.value().apply(row);
+                    json.writeFieldName(column.name());
+                    if (value == null) {
+                        json.writeNull();
+                    } else if (value instanceof Number number) {
+                        json.writeNumber(number.toString());
+                    } else {
+                        json.writeString(value.toString());
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // RFC 4180: bọc trong "..." khi có dấu phẩy, ngoặc kép hoặc xuống dòng
+    // Chữ bắt đầu bằng ký tự công thức → thêm ' (số giữ nguyên để Excel vẫn tính được)
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static LocalDate first(LocalDate from) {
+        return Objects.requireNonNullElse(from, EPOCH);
+    }
+
+    private static LocalDate last(LocalDate to) {
+        return Objects.requireNonNullElseGet(to, LocalDate::now);
+    }
+
+    private record Column(String name, Function<ExportRow, Object> value) {
+    }
+}
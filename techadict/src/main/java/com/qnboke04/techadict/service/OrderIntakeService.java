@@ -0,0 +1,73 @@
+package com.qnboke04.techadict.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qnboke04.techadict.dto.request.OrderRequest;
+import com.qnboke04.techadict.dto.response.OrderResponse;
+import com.qnboke04.techadict.entity.OrderIntake;
+import com.qnboke04.techadict.enums.IntakeStatus;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.repository.OrderIntakeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Nhận đơn theo kiểu accept-then-process: kiểm tra nhanh, ghi order_intake rồi trả về ngay.
+ * OrderIntakeWorker tạo đơn thật ở phía sau; client theo dõi qua GET /orders/{id}.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class OrderIntakeService {
+
+    OrderIntakeRepository orderIntakeRepository;
+    OrderService orderService;
+    OrderIntakeWorker orderIntakeWorker;
+    IdGenerator idGenerator;
+    ObjectMapper objectMapper;
+
+    @Transactional
+    public OrderResponse submit(OrderRequest request) {
+        orderService.validate(request);
+
+        OrderIntake intake = orderIntakeRepository.save(OrderIntake.builder()
+                .id(idGenerator.generate("ORD"))
+                .userId(request.getUserId())
+                .payload(toJson(request))
+                .status(IntakeStatus.QUEUED)
+                .build());
+
+        // 🔹 Đánh thức worker sau khi dòng đã commit (worker đọc được ngay)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    orderIntakeWorker.wakeUp();
+                }
+            });
+        } else {
+            orderIntakeWorker.wakeUp();
+        }
+
+        return OrderResponse.builder()
+                .id(intake.getId())
+                .userId(intake.getUserId())
+                .status(OrderStatus.PROCESSING)
+                .createdAt(intake.getCreatedAt())
+                .build();
+    }
+
+    private String toJson(OrderRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order request", e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.qnboke04.techadict.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qnboke04.techadict.dto.request.OrderRequest;
+import com.qnboke04.techadict.entity.OrderIntake;
+import com.qnboke04.techadict.enums.IntakeStatus;
+import com.qnboke04.techadict.repository.OrderIntakeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Xử lý order_intake theo từng lô nhỏ.
+ *
+ * - Một luồng điều phối nhận tối đa batch-size dòng QUEUED (UPDATE có điều kiện, nhiều instance
+ *   chạy cùng lúc không nhận trùng), rồi tạo từng đơn trên virtual thread riêng và chờ cả lô xong.
+ * - Tạo đơn và đánh dấu DONE nằm trong cùng transaction: worker chết giữa chừng thì dòng chỉ
+ *   còn PROCESSING, quá lease sẽ được trả lại hàng đợi và làm lại mà không sinh đơn trùng.
+ * - Chỉ lỗi nghiệp vụ (dữ liệu sai, hết hàng) mới FAILED; lỗi tạm thời của DB (deadlock, lock timeout,
+ *   xung đột version, mất kết nối) trả dòng về hàng đợi, tối đa max-attempts lần.
+ * - Rảnh thì ngủ tối đa poll-interval; có đơn mới thì được đánh thức ngay.
+ */
+@Component
+@Slf4j
+public class OrderIntakeWorker {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration retention;
+    private final int maxAttempts;
+
+    private final String workerId = UUID.randomUUID().toString();
+    private final Semaphore signal = new Semaphore(0);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public OrderIntakeWorker(OrderIntakeRepository orderIntakeRepository,
+                             OrderService orderService,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${order.intake.batch-size:20}") int batchSize,
+                             @Value("${order.intake.poll-interval:PT1S}") Duration pollInterval,
+                             @Value("${order.intake.lease:PT5M}") Duration lease,
+                             @Value("${order.intake.retention:PT24H}") Duration retention,
+                             @Value("${order.intake.max-attempts:5}") int maxAttempts) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.orderService = orderService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofVirtual().name("order-intake-dispatcher").start(this::dispatch);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        executor.close();
+    }
+
+    public void wakeUp() {
+        signal.release();
+    }
+
+    // ✅ Trả lại dòng bị bỏ dở và dọn dòng đã xong quá thời gian lưu
+    @Scheduled(fixedDelayString = "${order.intake.lease:PT5M}")
+    public void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer requeued = transactionTemplate.execute(status -> orderIntakeRepository.requeueStale(
+                IntakeStatus.QUEUED, IntakeStatus.PROCESSING, now.minus(lease), now));
+        Integer purged = transactionTemplate.execute(status -> orderIntakeRepository.deleteFinished(
+                List.of(IntakeStatus.DONE, IntakeStatus.FAILED), now.minus(retention)));
+        if (requeued != null && requeued > 0) {
+            log.warn("Requeued {} stale order intake rows", requeued);
+            wakeUp();
+        }
+        if (purged != null && purged > 0) {
+            log.info("Purged {} finished order intake rows", purged);
+        }
+    }
+
+    /**
+     * ✅ Nhận và xử lý một lô.
+     *
+     * @return số dòng đã xử lý
+     */
+    public int drainOnce() {
+        List<String> claimed = transactionTemplate.execute(status -> {
+            List<String> ids = orderIntakeRepository.findIdsByStatus(IntakeStatus.QUEUED, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return List.<String>of();
+            }
+            int count = orderIntakeRepository.claim(ids, workerId, IntakeStatus.QUEUED, IntakeStatus.PROCESSING,
+                    LocalDateTime.now());
+            return count == ids.size() ? ids : orderIntakeRepository.findClaimed(ids, workerId, IntakeStatus.PROCESSING);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        claimed.stream()
+                .map(id -> executor.submit(() -> process(id)))
+                .toList()
+                .forEach(future -> {
+                    try {
+                        future.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        log.error("Order intake task failed", e);
+                    }
+                });
+        return claimed.size();
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                int processed = drainOnce();
+                if (processed < batchSize) {
+                    signal.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    signal.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake dispatcher error", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(String intakeId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderIntake intake = orderIntakeRepository.findById(intakeId)
+                        .orElseThrow(() -> new IllegalStateException("Order intake not found: " + intakeId));
+                orderService.create(readRequest(intake), intake.getId());
+                if (finish(intakeId, IntakeStatus.DONE, null) == 0) {
+                    // Dòng đã bị worker khác nhận lại → hoàn tác đơn vừa tạo
+                    throw new IllegalStateException("Order intake reclaimed: " + intakeId);
+                }
+            });
+        } catch (RuntimeException e) {
+            String message = errorOf(e);
+            Integer requeued = isTransient(e)
+                    ? transactionTemplate.execute(status -> orderIntakeRepository.requeue(intakeId, workerId,
+                            IntakeStatus.PROCESSING, IntakeStatus.QUEUED, maxAttempts, message, LocalDateTime.now()))
+                    : Integer.valueOf(0);
+            if (requeued != null && requeued > 0) {
+                log.warn("Order intake {} requeued after transient error: {}", intakeId, message);
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> finish(intakeId, IntakeStatus.FAILED, message));
+        }
+    }
+
+    // Lỗi có thể tự hết khi thử lại (kể cả khi bị bọc trong exception khác)
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String errorOf(RuntimeException e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private int finish(String intakeId, IntakeStatus status, String error) {
+        return orderIntakeRepository.finish(intakeId, workerId, IntakeStatus.PROCESSING, status, error,
+                LocalDateTime.now());
+    }
+
+    private OrderRequest readRequest(OrderIntake intake) {
+        try {
+            return objectMapper.readValue(intake.getPayload(), OrderRequest.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid order intake payload", e);
+        }
+    }
+}
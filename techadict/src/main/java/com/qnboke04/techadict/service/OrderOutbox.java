@@ -0,0 +1,101 @@
+package com.qnboke04.techadict.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qnboke04.techadict.entity.OutboxEvent;
+import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.enums.OrderEventType;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import com.qnboke04.techadict.event.OrderEvent;
+import com.qnboke04.techadict.repository.OrderRepository.OrderState;
+import com.qnboke04.techadict.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Ghi sự kiện đơn hàng vào outbox. Bắt buộc chạy trong transaction đang thay đổi đơn
+ * (MANDATORY) để sự kiện và thay đổi cùng commit; OutboxRelay phát ra sau.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class OrderOutbox {
+
+    OutboxEventRepository outboxEventRepository;
+    IdGenerator idGenerator;
+    ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OrderEventType type, Orders order, OrderStatus previousStatus) {
+        OrderEvent event = new OrderEvent(
+                idGenerator.generate("EVT"),
+                type,
+                order.getId(),
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getStatus(),
+                previousStatus,
+                order.getPayment() != null ? order.getPayment().getStatus() : null,
+                order.getTotalAmount(),
+                LocalDateTime.now());
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .id(event.id())
+                .type(type)
+                .aggregateId(order.getId())
+                .payload(toJson(event))
+                .build());
+    }
+
+    // ✅ Chuyển trạng thái hàng loạt: 1 sự kiện ORDER_STATUS_CHANGED cho mỗi đơn, INSERT gom batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(Collection<OrderState> orders, OrderStatus target) {
+        recordAll(OrderEventType.ORDER_STATUS_CHANGED, orders, target, null);
+    }
+
+    // ✅ Hủy hàng loạt đơn chờ thanh toán quá hạn: thanh toán cũng chuyển sang paymentStatus
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpired(Collection<OrderState> orders, PaymentStatus paymentStatus) {
+        recordAll(OrderEventType.ORDER_EXPIRED, orders, OrderStatus.CANCELED, paymentStatus);
+    }
+
+    // paymentStatus = null → giữ trạng thái thanh toán đã đọc
+    private void recordAll(OrderEventType type, Collection<OrderState> orders, OrderStatus target,
+                           PaymentStatus paymentStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.saveAll(orders.stream().map(order -> {
+            OrderEvent event = new OrderEvent(
+                    idGenerator.generate("EVT"),
+                    type,
+                    order.getId(),
+                    order.getUserId(),
+                    target,
+                    order.getStatus(),
+                    paymentStatus != null ? paymentStatus : order.getPaymentStatus(),
+                    order.getTotalAmount(),
+                    now);
+            return OutboxEvent.builder()
+                    .id(event.id())
+                    .type(event.type())
+                    .aggregateId(order.getId())
+                    .payload(toJson(event))
+                    .build();
+        }).toList());
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order event", e);
+        }
+    }
+}
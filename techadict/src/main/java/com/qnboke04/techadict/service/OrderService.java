@@ -1,31 +1,63 @@
 package com.qnboke04.techadict.service;
 
+import com.qnboke04.techadict.dto.request.BulkStatusRequest;
+import com.qnboke04.techadict.dto.request.OrderFilter;
 import com.qnboke04.techadict.dto.request.OrderItemRequest;
 import com.qnboke04.techadict.dto.request.OrderRequest;
 import com.qnboke04.techadict.dto.request.ShippingInfo;
+import com.qnboke04.techadict.dto.response.BulkStatusResponse;
+import com.qnboke04.techadict.dto.response.BulkStatusResult;
+import com.qnboke04.techadict.dto.response.CursorPage;
 import com.qnboke04.techadict.dto.response.OrderResponse;
+import com.qnboke04.techadict.dto.response.OrderSummaryResponse;
 import com.qnboke04.techadict.entity.*;
+import com.qnboke04.techadict.enums.BulkStatusOutcome;
+import com.qnboke04.techadict.enums.OrderEventType;
 import com.qnboke04.techadict.enums.OrderStatus;
 import com.qnboke04.techadict.enums.PaymentMethod;
 import com.qnboke04.techadict.enums.PaymentStatus;
+import com.qnboke04.techadict.event.StockChangedEvent;
+import com.qnboke04.techadict.exception.AppException;
+import com.qnboke04.techadict.exception.ErrorCode;
 import com.qnboke04.techadict.mapper.OrderMapper;
 import com.qnboke04.techadict.repository.*;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class OrderService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_CONFLICT_ATTEMPTS = 3;
+    public static final int MAX_BULK_STATUS = 1000;
+    private static final int BULK_STATUS_CHUNK = 200;
 
     OrderRepository ordersRepository;
+    OrderIntakeRepository orderIntakeRepository;
     OrderItemRepository orderItemRepository;
     ProductVariantRepository variantsRepository;
     UserRepository usersRepository;
@@ -33,9 +65,23 @@ public class OrderService {
     PaymentRepository paymentRepository;
     OrderMapper orderMapper;
     IdGenerator idGenerator;
-
-    // ✅ 1. Tạo đơn hàng mới
+    InventoryLedger inventoryLedger;
+    OrderOutbox orderOutbox;
+    SalesRollup salesRollup;
+    ApplicationEventPublisher eventPublisher;
+    TransactionTemplate transactionTemplate;
+
+    // ✅ 1. Tạo đơn hàng mới — cả đơn trong 1 transaction, lỗi ở bất kỳ dòng nào thì hoàn tác toàn bộ
+    @Transactional
     public OrderResponse create(OrderRequest request) {
+        return create(request, idGenerator.generate("ORD"));
+    }
+
+    // ✅ Tạo đơn với id đã cấp trước (đơn nhận qua hàng đợi, client đã có id để theo dõi)
+    @Transactional
+    public OrderResponse create(OrderRequest request, String orderId) {
+        validate(request);
+
         // 🔹 Lấy thông tin người dùng
         Users user = usersRepository.findById(request.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -46,7 +92,7 @@ public class OrderService {
             // 🧩 Nếu có sẵn addressId → dùng lại
             address = addressRepository.findById(request.getAddressId())
                     .orElseThrow(() -> new RuntimeException("Address not found"));
-        } else if (request.getShippingInfo() != null) {
+        } else {
             // 🧩 Nếu người dùng nhập địa chỉ mới → tạo mới
             ShippingInfo info = request.getShippingInfo();
             address = Address.builder()
@@ -61,38 +107,31 @@ public class OrderService {
                     .userId(request.getUserId())
                     .build();
             addressRepository.save(address);
-        } else {
-            throw new RuntimeException("Address information is required");
         }
 
         // 🔹 Tạo đối tượng Order
         Orders order = Orders.builder()
-                .id(idGenerator.generate("ORD"))
+                .id(orderId)
                 .user(user)
                 .shippingAddress(address)
                 .status(OrderStatus.PENDING)
                 .build();
 
+        // 🔹 Nạp mọi variant của đơn bằng 1 query rồi giữ hàng:
+        //    SKU hot giữ trong bộ nhớ (InventoryLedger), còn lại bằng 1 câu UPDATE
+        Map<String, Integer> requested = quantitiesByVariant(request.getItems());
+        Map<String, ProductVariants> variants = variantsRepository.findAllById(requested.keySet()).stream()
+                .collect(Collectors.toMap(ProductVariants::getId, Function.identity()));
+        Map<String, Integer> hot = reserveStock(requested, variants);
+
         // 🔹 Tạo danh sách OrderItem
         List<OrderItem> items = request.getItems().stream().map(reqItem -> {
-            ProductVariants variant = variantsRepository.findById(reqItem.getVariantId())
-                    .orElseThrow(() -> new RuntimeException("Variant not found"));
-
-            // ✅ Kiểm tra tồn kho an toàn
-            int currentQty = Optional.ofNullable(variant.getQuantity()).orElse(0);
-            int newStock = currentQty - reqItem.getQuantity();
-            if (newStock < 0) {
-                throw new RuntimeException("Not enough stock for product: " + variant.getName());
-            }
+            ProductVariants variant = variants.get(reqItem.getVariantId());
 
             // 🔹 Snapshot giá và tính subtotal
             BigDecimal price = variant.getPrice();
             BigDecimal subtotal = price.multiply(BigDecimal.valueOf(reqItem.getQuantity()));
 
-            // 🔹 Cập nhật tồn kho
-            variant.setQuantity(newStock);
-            variantsRepository.save(variant);
-
             // 🔹 Tạo OrderItem
             return OrderItem.builder()
                     .id(idGenerator.generate("OI"))
@@ -101,6 +140,7 @@ public class OrderService {
                     .price(price)
                     .quantity(reqItem.getQuantity())
                     .subtotal(subtotal)
+                    .stockPending(hot.containsKey(variant.getId()))
                     .build();
         }).toList();
 
@@ -113,11 +153,11 @@ public class OrderService {
         order.setItems(items);
         order.setTotalAmount(totalAmount);
 
-        // 🔹 Tạo payment mặc định (COD, PENDING)
+        // 🔹 Tạo payment (mặc định COD), chờ thanh toán
         Payment payment = Payment.builder()
                 .id(idGenerator.generate("PAY"))
                 .amount(totalAmount.doubleValue())
-                .method(PaymentMethod.COD)
+                .method(request.getPaymentMethod() != null ? request.getPaymentMethod() : PaymentMethod.COD)
                 .status(PaymentStatus.PENDING)
                 .paymentDate(LocalDateTime.now())
                 .order(order)
@@ -125,51 +165,146 @@ public class OrderService {
 
         order.setPayment(payment);
 
-        // 🔹 Lưu order và payment
+        // 🔹 Lưu order; items và payment đi theo cascade, INSERT được gom batch theo bảng
         ordersRepository.save(order);
-        paymentRepository.save(payment);
+        orderOutbox.record(OrderEventType.ORDER_CREATED, order, null);
+        salesRollup.record(order, null, null);
+        eventPublisher.publishEvent(new StockChangedEvent(productIdsOf(items)));
 
         // 🔹 Trả về DTO
         return orderMapper.toOrderResponse(order);
     }
 
-    // ✅ 2. Cập nhật trạng thái đơn hàng (Admin)
+    /**
+     * ✅ 2. Cập nhật trạng thái đơn hàng (Admin).
+     * Chỉ cho phép theo bảng chuyển trạng thái (OrderStatus.next); ghi bằng UPDATE có điều kiện theo
+     * status + version nên admin và người dùng thao tác cùng lúc không ghi đè nhau.
+     * Chuyển sang CANCELED đi cùng đường hủy đơn (hoàn kho, payment FAILED).
+     */
     public OrderResponse updateStatus(String orderId, String status) {
-        Orders order = ordersRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setStatus(OrderStatus.valueOf(status.toUpperCase()));
-        ordersRepository.save(order);
-        return orderMapper.toOrderResponse(order);
+        OrderStatus target = OrderStatus.valueOf(status.toUpperCase());
+        return retryOnConflict(() -> {
+            Orders order = ordersRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (target == OrderStatus.CANCELED) {
+                return cancel(order);
+            }
+            OrderStatus previous = order.getStatus();
+            transition(order, target);
+            orderOutbox.record(OrderEventType.ORDER_STATUS_CHANGED, order, previous);
+            salesRollup.record(order, previous, order.getPayment() != null ? order.getPayment().getStatus() : null);
+            return orderMapper.toOrderResponse(order);
+        });
     }
 
-    // ✅ 3. Cập nhật trạng thái thanh toán (COD -> SUCCESS)
-    public OrderResponse updatePayment(String orderId, String status) {
-        Orders order = ordersRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+    /**
+     * ✅ 2b. Chuyển trạng thái hàng loạt (kho xuất hàng theo lô).
+     * Mỗi khối BULK_STATUS_CHUNK đơn là 1 transaction: đọc trạng thái gọn (không nạp đồ thị đơn), kiểm tra
+     * bảng chuyển trạng thái, rồi 1 câu UPDATE có điều kiện cho mỗi trạng thái nguồn. Có đơn bị đổi
+     * đồng thời → làm lại cả khối; vẫn xung đột thì xử lý từng đơn để chỉ đơn đó nhận CONFLICT.
+     */
+    public BulkStatusResponse updateStatusBulk(BulkStatusRequest request) {
+        OrderStatus target = request.getStatus();
+        if (target == null || target == OrderStatus.PROCESSING || target == OrderStatus.CANCELED) {
+            throw new RuntimeException("Trạng thái đích không hợp lệ: " + target + " (hủy đơn dùng /orders/{id}/cancel)");
+        }
+        List<String> ids = request.getOrderIds() == null ? List.of()
+                : request.getOrderIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty() || ids.size() > MAX_BULK_STATUS) {
+            throw new RuntimeException("Cần từ 1 đến " + MAX_BULK_STATUS + " mã đơn");
+        }
 
-        if (order.getPayment() != null) {
-            order.getPayment().setStatus(PaymentStatus.valueOf(status.toUpperCase()));
-            paymentRepository.save(order.getPayment());
+        Map<String, BulkStatusResult> results = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BULK_STATUS_CHUNK) {
+            List<String> chunk = ids.subList(from, Math.min(from + BULK_STATUS_CHUNK, ids.size()));
+            results.putAll(transitionChunk(chunk, target));
         }
+        List<BulkStatusResult> ordered = ids.stream().map(results::get).toList();
+        return BulkStatusResponse.builder()
+                .status(target)
+                .requested(ids.size())
+                .updated((int) ordered.stream().filter(r -> r.getOutcome() == BulkStatusOutcome.UPDATED).count())
+                .results(ordered)
+                .build();
+    }
 
-        return orderMapper.toOrderResponse(order);
+    // ✅ 3. Cập nhật trạng thái thanh toán (COD -> SUCCESS); Payment có @Version nên ghi trùng sẽ được thử lại
+    public OrderResponse updatePayment(String orderId, String status) {
+        PaymentStatus target = PaymentStatus.valueOf(status.toUpperCase());
+        return retryOnConflict(() -> {
+            Orders order = ordersRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+
+            if (order.getPayment() != null) {
+                PaymentStatus previousPayment = order.getPayment().getStatus();
+                order.getPayment().setStatus(target);
+                paymentRepository.save(order.getPayment());
+                orderOutbox.record(OrderEventType.PAYMENT_UPDATED, order, null);
+                salesRollup.record(order, order.getStatus(), previousPayment);
+            }
+
+            return orderMapper.toOrderResponse(order);
+        });
     }
 
-    // ✅ 4. Lấy chi tiết 1 đơn hàng
+    /**
+     * ✅ 4. Lấy chi tiết 1 đơn hàng (đơn còn trong hàng đợi → trạng thái PROCESSING).
+     * Mỗi lần đọc 1 transaction riêng: chung 1 transaction REPEATABLE READ thì lần đọc lại bảng orders
+     * vẫn dùng snapshot cũ, không thấy đơn worker vừa ghi xong.
+     */
     public OrderResponse getById(String orderId) {
-        Orders order = ordersRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        return orderMapper.toOrderResponse(order);
+        return findResponse(orderId)
+                .orElseGet(() -> orderIntakeRepository.findById(orderId)
+                        .map(this::toIntakeResponse)
+                        .orElseThrow(() -> new RuntimeException("Order not found")));
     }
 
-    // ✅ 5. Lấy tất cả đơn hàng (Admin)
-    public List<OrderResponse> getAll() {
-        return orderMapper.toOrderResponseList(ordersRepository.findAll());
+    // ✅ Kiểm tra nhanh phần không cần DB (dùng cả khi nhận đơn vào hàng đợi)
+    public void validate(OrderRequest request) {
+        if (request.getUserId() == null || request.getUserId().isBlank()) {
+            throw new RuntimeException("User ID is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
+        quantitiesByVariant(request.getItems());
+        if (request.getAddressId() == null && request.getShippingInfo() == null) {
+            throw new RuntimeException("Address information is required");
+        }
     }
 
-    // ✅ 6. Lấy danh sách đơn theo User ID
-    public List<OrderResponse> getByUser(String userId) {
-        return orderMapper.toOrderResponseList(ordersRepository.findByUserId(userId));
+    /**
+     * ✅ 5. Danh sách đơn có lọc + phân trang keyset (Admin), mới nhất trước.
+     * 1 query cho trang đơn (kèm payment) + 1 query nạp items/variant cho cả trang.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponse> getPage(OrderFilter filter, String cursor, Integer size) {
+        int limit = KeysetPage.limit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        KeysetCursor after = KeysetPage.after(cursor);
+
+        List<Orders> rows = ordersRepository.search(filter,
+                after == null ? null : after.keyAsDateTime(),
+                after == null ? null : after.id(),
+                limit + 1);
+        return KeysetPage.of(rows, limit, last -> KeysetCursor.of(last.getCreatedAt(), last.getId()), page -> {
+            if (!page.isEmpty()) {
+                ordersRepository.fetchItems(page);
+            }
+            return orderMapper.toOrderResponseList(page);
+        });
+    }
+
+    // ✅ 6. Lịch sử đơn của user (tóm tắt, phân trang keyset, mới nhất trước)
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> getHistory(String userId, String cursor, Integer size) {
+        int limit = KeysetPage.limit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        KeysetCursor after = KeysetPage.after(cursor);
+
+        List<OrderSummaryResponse> rows = ordersRepository.findHistory(userId,
+                after == null ? null : after.keyAsDateTime(),
+                after == null ? null : after.id(),
+                KeysetPage.window(limit));
+        return KeysetPage.of(rows, limit, last -> KeysetCursor.of(last.getCreatedAt(), last.getId()), page -> page);
     }
 
     public OrderResponse cancelOrder(String orderId, String userId) {
@@ -179,40 +314,47 @@ public class OrderService {
             throw new RuntimeException("User ID is required");
         }
 
-        // 2️⃣ Tìm đơn hàng
-        Orders order = ordersRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        return retryOnConflict(() -> {
+            // 2️⃣ Tìm đơn hàng
+            Orders order = ordersRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
 
-        // 3️⃣ Kiểm tra quyền hủy đơn
-        if (!order.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Bạn không có quyền hủy đơn này");
-        }
+            // 3️⃣ Kiểm tra quyền hủy đơn
+            if (!order.getUser().getId().equals(userId)) {
+                throw new RuntimeException("Bạn không có quyền hủy đơn này");
+            }
 
-        // 4️⃣ Chỉ được hủy khi đang chờ xác nhận
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new RuntimeException("Không thể hủy đơn ở trạng thái: " + order.getStatus());
-        }
+            // 4️⃣ Chỉ được hủy khi đang chờ xác nhận
+            if (order.getStatus() != OrderStatus.PENDING) {
+                throw new RuntimeException("Không thể hủy đơn ở trạng thái: " + order.getStatus());
+            }
 
-        // 5️⃣ Không thể hủy nếu đã thanh toán BANK thành công
-        if (order.getPayment() != null &&
-                order.getPayment().getMethod() == PaymentMethod.BANK &&
-                order.getPayment().getStatus() == PaymentStatus.SUCCESS) {
+            // 5️⃣ Không thể hủy nếu đã thanh toán BANK thành công
+            if (order.getPayment() != null &&
+                    order.getPayment().getMethod() == PaymentMethod.BANK &&
+                    order.getPayment().getStatus() == PaymentStatus.SUCCESS) {
 
-            throw new RuntimeException("Đơn đã thanh toán, không thể hủy");
-        }
+                throw new RuntimeException("Đơn đã thanh toán, không thể hủy");
+            }
 
-        // 6️⃣ Hoàn lại tồn kho
-        for (OrderItem item : order.getItems()) {
-            ProductVariants variant = item.getVariant();
+            return cancel(order);
+        });
+    }
 
-            int current = Optional.ofNullable(variant.getQuantity()).orElse(0);
-            variant.setQuantity(current + item.getQuantity());
+    // Hủy đơn (người dùng hoặc admin): chuyển trạng thái trước — thua tranh chấp thì chưa kịp hoàn kho
+    private OrderResponse cancel(Orders order) {
+        OrderStatus previous = order.getStatus();
+        PaymentStatus previousPayment = order.getPayment() != null ? order.getPayment().getStatus() : null;
 
-            variantsRepository.save(variant);
-        }
+        // 6️⃣ Cập nhật trạng thái đơn (UPDATE có điều kiện theo status + version)
+        transition(order, OrderStatus.CANCELED);
 
-        // 7️⃣ Cập nhật trạng thái đơn
-        order.setStatus(OrderStatus.CANCELED);
+        // 7️⃣ Hoàn lại tồn kho (1 câu UPDATE cộng trực tiếp trên DB, không ghi đè số tồn đã đọc)
+        Map<String, Integer> released = order.getItems().stream()
+                .collect(Collectors.toMap(item -> item.getVariant().getId(), OrderItem::getQuantity,
+                        Integer::sum, TreeMap::new));
+        variantsRepository.releaseStock(released, LocalDateTime.now());
+        inventoryLedger.releaseAfterCommit(released);
 
         // 8️⃣ Cập nhật trạng thái thanh toán
         if (order.getPayment() != null) {
@@ -220,12 +362,207 @@ public class OrderService {
             paymentRepository.save(order.getPayment());
         }
 
-        // 9️⃣ Lưu đơn hàng
-        ordersRepository.save(order);
+        // 9️⃣ Ghi sự kiện + rollup cùng transaction
+        orderOutbox.record(OrderEventType.ORDER_CANCELED, order, previous);
+        salesRollup.record(order, previous, previousPayment);
+        eventPublisher.publishEvent(new StockChangedEvent(productIdsOf(order.getItems())));
 
         return orderMapper.toOrderResponse(order);
     }
 
+    private Map<String, BulkStatusResult> transitionChunk(List<String> ids, OrderStatus target) {
+        for (int attempt = 1; attempt <= MAX_CONFLICT_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyTransitions(ids, target));
+            } catch (OptimisticLockingFailureException e) {
+                // thử lại cả khối với trạng thái mới nhất
+            }
+        }
+        // Đơn "nóng" không được kéo cả khối thất bại: xử lý riêng từng đơn, mỗi đơn 1 lần
+        Map<String, BulkStatusResult> results = new HashMap<>();
+        for (String id : ids) {
+            try {
+                results.putAll(transactionTemplate.execute(status -> applyTransitions(List.of(id), target)));
+            } catch (OptimisticLockingFailureException e) {
+                results.put(id, BulkStatusResult.builder().orderId(id).outcome(BulkStatusOutcome.CONFLICT).build());
+            }
+        }
+        return results;
+    }
+
+    private Map<String, BulkStatusResult> applyTransitions(List<String> ids, OrderStatus target) {
+        Map<String, BulkStatusResult> results = new HashMap<>();
+        ids.forEach(id -> results.put(id, BulkStatusResult.builder()
+                .orderId(id)
+                .outcome(BulkStatusOutcome.NOT_FOUND)
+                .build()));
+
+        // Gom đơn hợp lệ theo trạng thái nguồn: orderId → version đã đọc
+        Map<OrderStatus, Map<String, Long>> bySource = new EnumMap<>(OrderStatus.class);
+        List<OrderRepository.OrderState> eligible = new ArrayList<>();
+        for (OrderRepository.OrderState state : ordersRepository.findStates(ids)) {
+            BulkStatusOutcome outcome = state.getStatus() == target ? BulkStatusOutcome.UNCHANGED
+                    : state.getStatus().canTransitionTo(target) ? BulkStatusOutcome.UPDATED
+                    : BulkStatusOutcome.INVALID_TRANSITION;
+            results.get(state.getId()).setOutcome(outcome);
+            results.get(state.getId()).setPreviousStatus(state.getStatus());
+            if (outcome == BulkStatusOutcome.UPDATED) {
+                bySource.computeIfAbsent(state.getStatus(), k -> new TreeMap<>()).put(state.getId(), state.getVersion());
+                eligible.add(state);
+            }
+        }
+        if (eligible.isEmpty()) {
+            return results;
+        }
+
+        // Số liệu rollup đọc trước khi đổi trạng thái (gom theo ngày + trạng thái nguồn)
+        List<String> eligibleIds = eligible.stream().map(OrderRepository.OrderState::getId).toList();
+        var statusTotals = ordersRepository.sumDailyByStatusOf(eligibleIds, PaymentStatus.SUCCESS);
+        var variantTotals = orderItemRepository.sumDailyByVariantOf(eligibleIds);
+
+        bySource.forEach((source, versions) -> {
+            if (ordersRepository.transitionAll(versions, source, target) < versions.size()) {
+                throw new ObjectOptimisticLockingFailureException(Orders.class, versions.keySet().toString());
+            }
+        });
+        orderOutbox.recordStatusChanges(eligible, target);
+        salesRollup.move(statusTotals, variantTotals, target);
+        return results;
+    }
+
+    private void transition(Orders order, OrderStatus target) {
+        if (!order.getStatus().canTransitionTo(target)) {
+            throw new AppException(ErrorCode.INVALID_STATUS_TRANSITION);
+        }
+        if (!ordersRepository.transition(order, target)) {
+            throw new ObjectOptimisticLockingFailureException(Orders.class, order.getId());
+        }
+    }
+
+    /**
+     * Mỗi lần thử là 1 transaction mới (đọc lại bản mới nhất); hết lượt vẫn xung đột → 409.
+     */
+    private <T> T retryOnConflict(Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return transactionTemplate.execute(status -> attempt.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (i >= MAX_CONFLICT_ATTEMPTS) {
+                    throw new AppException(ErrorCode.CONCURRENT_UPDATE);
+                }
+            }
+        }
+    }
 
+    // Gộp số lượng theo variant (một variant có thể xuất hiện ở nhiều dòng)
+    private Map<String, Integer> quantitiesByVariant(List<OrderItemRequest> lines) {
+        Map<String, Integer> requested = new TreeMap<>();
+        for (OrderItemRequest line : lines) {
+            if (line.getVariantId() == null) {
+                throw new RuntimeException("Variant not found");
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity for variant: " + line.getVariantId());
+            }
+            requested.merge(line.getVariantId(), line.getQuantity(), Integer::sum);
+        }
+        return requested;
+    }
 
+    /**
+     * ✅ Trừ tồn kho bằng MỘT câu UPDATE có điều kiện (quantity >= ?) cho mọi variant của đơn.
+     * Không đọc-rồi-ghi nên không mất cập nhật khi nhiều đơn cùng mua một SKU; DB chỉ khóa dòng
+     * trong lúc UPDATE. Nếu số dòng bị trừ ít hơn số variant → có variant thiếu hàng, ném lỗi để
+     * transaction hoàn tác cả phần đã trừ.
+     * Variant đang bật hot được giữ trong InventoryLedger (không UPDATE dòng variant), dòng đơn
+     * tương ứng đánh dấu stock_pending để job của ledger trừ xuống DB sau.
+     * Variant đổi trạng thái hot giữa chừng được chuyển sang đường còn lại ngay trong lần gọi này,
+     * không bắt người dùng đặt lại.
+     *
+     * @return phần số lượng đã giữ qua ledger
+     */
+    private Map<String, Integer> reserveStock(Map<String, Integer> requested, Map<String, ProductVariants> variants) {
+        requested.keySet().forEach(variantId -> {
+            if (!variants.containsKey(variantId)) {
+                throw new RuntimeException("Variant not found");
+            }
+        });
+
+        Map<String, Integer> hot = reserveHot(requested, variants);
+
+        Map<String, Integer> cold = new TreeMap<>(requested);
+        cold.keySet().removeAll(hot.keySet());
+        int updated = cold.isEmpty() ? 0 : variantsRepository.reserveStock(cold, LocalDateTime.now());
+        if (updated < cold.size()) {
+            // Dòng có cờ hot dưới khóa chắc chắn chưa bị trừ (UPDATE bỏ qua) → vừa được bật hot, giữ qua ledger
+            Map<String, Integer> turnedHot = new TreeMap<>();
+            variantsRepository.lockHotReservationIds(cold.keySet())
+                    .forEach(variantId -> turnedHot.put(variantId, cold.get(variantId)));
+            cold.keySet().removeAll(turnedHot.keySet());
+            if (updated < cold.size()) {
+                // Số tồn vừa đọc chỉ dùng để chỉ ra variant nào thiếu trong thông báo lỗi
+                ProductVariants shortage = cold.entrySet().stream()
+                        .map(e -> variants.get(e.getKey()))
+                        .filter(v -> Optional.ofNullable(v.getQuantity()).orElse(0) < cold.get(v.getId()))
+                        .findFirst()
+                        .orElse(variants.get(cold.keySet().iterator().next()));
+                throw new RuntimeException("Not enough stock for product: " + shortage.getName());
+            }
+            String shortage = inventoryLedger.reserve(turnedHot);
+            if (shortage != null) {
+                throw new RuntimeException("Not enough stock for product: " + variants.get(shortage).getName());
+            }
+            hot.putAll(turnedHot);
+        }
+        return hot;
+    }
+
+    // Variant đang được tắt hot thì ledger từ chối: chờ tắt xong rồi xét lại, lần sau variant đó đi đường DB
+    private Map<String, Integer> reserveHot(Map<String, Integer> requested, Map<String, ProductVariants> variants) {
+        for (int attempt = 1; ; attempt++) {
+            inventoryLedger.awaitDrained(requested.keySet());
+            Map<String, Integer> hot = inventoryLedger.hotSubset(requested);
+            if (hot.isEmpty()) {
+                return hot;
+            }
+            try {
+                String shortage = inventoryLedger.reserve(hot);
+                if (shortage != null) {
+                    throw new RuntimeException("Not enough stock for product: " + variants.get(shortage).getName());
+                }
+                return hot;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_CONFLICT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private OrderResponse toIntakeResponse(OrderIntake intake) {
+        return switch (intake.getStatus()) {
+            case QUEUED, PROCESSING -> OrderResponse.builder()
+                    .id(intake.getId())
+                    .userId(intake.getUserId())
+                    .status(OrderStatus.PROCESSING)
+                    .createdAt(intake.getCreatedAt())
+                    .build();
+            case FAILED -> throw new RuntimeException("Đặt hàng thất bại: " + intake.getError());
+            // Đơn vừa được ghi xong giữa 2 lần đọc → đọc lại bảng orders (transaction mới)
+            case DONE -> findResponse(intake.getId())
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+        };
+    }
+
+    private Optional<OrderResponse> findResponse(String orderId) {
+        return transactionTemplate.execute(status -> ordersRepository.findById(orderId)
+                .map(orderMapper::toOrderResponse));
+    }
+
+    // Sản phẩm bị ảnh hưởng khi tồn kho các variant trong đơn thay đổi
+    private Set<String> productIdsOf(List<OrderItem> items) {
+        return items.stream()
+                .map(item -> item.getVariant().getProduct().getId())
+                .collect(Collectors.toSet());
+    }
 }
@@ -0,0 +1,111 @@
+package com.qnboke04.techadict.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qnboke04.techadict.entity.OutboxEvent;
+import com.qnboke04.techadict.event.OrderEvent;
+import com.qnboke04.techadict.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Đọc outbox theo lô và phát tới mọi OutboxSink, rồi đánh dấu đã phát.
+ * Giao ít nhất một lần: sink lỗi thì lô được giữ lại và phát lại ở lần chạy sau
+ * (các sink đã nhận có thể thấy trùng). Nhiều instance cùng chạy cũng chỉ gây trùng, không mất.
+ * Dòng có payload hỏng được cách ly (quarantined_at + error) để không chặn cả hàng đợi.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       @Value("${outbox.batch-size:200}") int batchSize,
+                       @Value("${outbox.retention:P7D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        log.info("Outbox sinks: {}", sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    /**
+     * ✅ Phát hết các lô đang chờ.
+     *
+     * @return số sự kiện đã phát
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay-interval:PT1S}")
+    public synchronized int relay() {
+        int total = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return total;
+            }
+            List<OrderEvent> events = new ArrayList<>(batch.size());
+            List<String> ids = new ArrayList<>(batch.size());
+            for (OutboxEvent row : batch) {
+                try {
+                    events.add(objectMapper.readValue(row.getPayload(), OrderEvent.class));
+                    ids.add(row.getId());
+                } catch (Exception e) {
+                    quarantine(row, e);
+                }
+            }
+            if (!events.isEmpty()) {
+                for (OutboxSink sink : sinks) {
+                    try {
+                        sink.publish(events);
+                    } catch (Exception e) {
+                        log.warn("Outbox sink {} failed, {} events will be retried", sink.name(), events.size(), e);
+                        return total;
+                    }
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxEventRepository.markPublished(ids, LocalDateTime.now()));
+            }
+            total += ids.size();
+            if (batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    // ✅ Dọn sự kiện đã phát quá thời gian lưu
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:PT1H}")
+    public void purgePublished() {
+        Integer removed = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} published outbox events", removed);
+        }
+    }
+
+    private void quarantine(OutboxEvent row, Exception e) {
+        log.error("Invalid outbox payload {} ({} {}), quarantined", row.getId(), row.getType(), row.getAggregateId(), e);
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        String error = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.quarantine(row.getId(), error, LocalDateTime.now()));
+    }
+}
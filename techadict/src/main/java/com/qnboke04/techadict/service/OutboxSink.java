@@ -0,0 +1,16 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.event.OrderEvent;
+
+import java.util.List;
+
+/**
+ * ✅ Đích phát sự kiện của OutboxRelay (event bus trong ứng dụng, file, message queue...).
+ * Lô bị lỗi sẽ được phát lại ở lần sau, nên sink phải chịu được sự kiện trùng (theo id).
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OrderEvent> events) throws Exception;
+}
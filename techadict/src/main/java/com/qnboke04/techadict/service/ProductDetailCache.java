@@ -0,0 +1,87 @@
+package com.qnboke04.techadict.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.qnboke04.techadict.dto.response.CacheStatsResponse;
+import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.event.BrandChangedEvent;
+import com.qnboke04.techadict.event.CategoryChangedEvent;
+import com.qnboke04.techadict.event.ProductChangedEvent;
+import com.qnboke04.techadict.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * ✅ Cache ProductResponse theo productId, giới hạn theo số lượng và TTL.
+ * Mỗi entry giữ kèm phiên bản đọc cùng transaction với response → ETag luôn khớp đúng body đang trả,
+ * cache hit thì không cần query nào.
+ * Bị xóa đúng entry khi sản phẩm được sửa / xóa hoặc khi tồn kho variant thay đổi;
+ * đổi brand / category (hiếm) thì xóa cả cache vì response chứa tên của chúng.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final long maxSize;
+    private final Cache<String, Detail> cache;
+
+    public record Detail(ProductResponse product, ResourceVersion version) {
+    }
+
+    public ProductDetailCache(@Value("${product.cache.max-size:10000}") long maxSize,
+                              @Value("${product.cache.ttl:PT10M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Detail get(String productId, Function<String, Detail> loader) {
+        return cache.get(productId, loader);
+    }
+
+    public void invalidate(String productId) {
+        cache.invalidate(productId);
+    }
+
+    // Chạy sau commit để request khác không nạp lại dữ liệu cũ vào cache
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        cache.invalidateAll(event.productIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .size(cache.estimatedSize())
+                .maxSize(maxSize)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .build();
+    }
+}
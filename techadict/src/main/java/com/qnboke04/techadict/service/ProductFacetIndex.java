@@ -0,0 +1,267 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.CursorPage;
+import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.dto.response.VariantResponse;
+import com.qnboke04.techadict.enums.ProductFacet;
+import com.qnboke04.techadict.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Facet engine: mỗi giá trị facet giữ một BitSet các sản phẩm (theo ordinal).
+ * Lọc nhiều điều kiện = vài phép AND/OR trên từng word 64-bit, không cần query SQL cho mỗi facet.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@Slf4j
+public class ProductFacetIndex {
+
+    // Khoảng giá (VNĐ) theo giá variant thấp nhất: [cận dưới, cận trên)
+    private static final long[] PRICE_BOUNDS = {5_000_000L, 10_000_000L, 20_000_000L, 30_000_000L};
+    private static final String[] PRICE_BANDS = {"UNDER_5M", "5M_10M", "10M_20M", "20M_30M", "OVER_30M"};
+
+    ProductService productService;
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+    // productId <-> ordinal (vị trí bit); ordinal của sản phẩm đã xóa được tái sử dụng
+    Map<String, Integer> ordinals = new HashMap<>();
+    List<String> productIds = new ArrayList<>();
+    Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    BitSet live = new BitSet();
+    // facet -> giá trị -> các sản phẩm có giá trị đó
+    Map<ProductFacet, Map<String, BitSet>> postings = new EnumMap<>(ProductFacet.class);
+    // productId -> giá trị facet đã ghi (để xóa bit khi cập nhật)
+    Map<String, Map<ProductFacet, Set<String>>> documents = new HashMap<>();
+
+    public record FacetResult(List<String> productIds, Map<ProductFacet, Map<String, Integer>> counts) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            productIds.clear();
+            freeOrdinals.clear();
+            live.clear();
+            postings.clear();
+            documents.clear();
+            String cursor = null;
+            do {
+                CursorPage<ProductResponse> page = productService.getPage(cursor, ProductService.MAX_PAGE_SIZE);
+                page.getItems().forEach(this::index);
+                cursor = page.getNext();
+            } while (cursor != null);
+            log.info("Product facet index built: {} products", live.cardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+    }
+
+    public void index(ProductResponse product) {
+        Map<ProductFacet, Set<String>> values = extractValues(product);
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.containsKey(product.getId())
+                    ? clearBits(product.getId())
+                    : allocate(product.getId());
+            values.forEach((facet, facetValues) -> {
+                Map<String, BitSet> byValue = postings.computeIfAbsent(facet, f -> new HashMap<>());
+                facetValues.forEach(v -> byValue.computeIfAbsent(v, k -> new BitSet()).set(ordinal));
+            });
+            documents.put(product.getId(), values);
+            live.set(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            if (!ordinals.containsKey(productId)) {
+                return;
+            }
+            int ordinal = clearBits(productId);
+            live.clear(ordinal);
+            ordinals.remove(productId);
+            productIds.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ✅ Lọc + đếm facet.
+     * Trong cùng một facet các giá trị được OR, giữa các facet thì AND.
+     * Số đếm của facet F được tính với bộ lọc của mọi facet KHÁC F, để người dùng
+     * thấy được chọn thêm một giá trị thì còn bao nhiêu sản phẩm.
+     *
+     * @param candidates danh sách productId đã xếp hạng (VD: kết quả tìm kiếm), null = toàn bộ catalog
+     */
+    public FacetResult query(List<String> candidates, Map<ProductFacet, Set<String>> filters) {
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            if (candidates != null) {
+                base.and(toBits(candidates));
+            }
+
+            Map<ProductFacet, BitSet> selections = new EnumMap<>(ProductFacet.class);
+            filters.forEach((facet, values) -> {
+                if (values == null || values.isEmpty()) {
+                    return;
+                }
+                BitSet selected = new BitSet();
+                Map<String, BitSet> byValue = postings.getOrDefault(facet, Map.of());
+                values.forEach(v -> {
+                    BitSet bits = byValue.get(v);
+                    if (bits != null) {
+                        selected.or(bits);
+                    }
+                });
+                selections.put(facet, selected);
+            });
+
+            BitSet matched = (BitSet) base.clone();
+            selections.values().forEach(matched::and);
+
+            Map<ProductFacet, Map<String, Integer>> counts = new EnumMap<>(ProductFacet.class);
+            for (ProductFacet facet : ProductFacet.values()) {
+                BitSet mask = (BitSet) base.clone();
+                selections.forEach((other, selected) -> {
+                    if (other != facet) {
+                        mask.and(selected);
+                    }
+                });
+                Map<String, Integer> facetCounts = new TreeMap<>();
+                postings.getOrDefault(facet, Map.of()).forEach((value, bits) -> {
+                    BitSet hit = (BitSet) bits.clone();
+                    hit.and(mask);
+                    int count = hit.cardinality();
+                    if (count > 0) {
+                        facetCounts.put(value, count);
+                    }
+                });
+                counts.put(facet, facetCounts);
+            }
+
+            List<String> ids = new ArrayList<>(matched.cardinality());
+            if (candidates != null) {
+                // Giữ nguyên thứ tự xếp hạng của danh sách đầu vào
+                for (String id : candidates) {
+                    Integer ordinal = ordinals.get(id);
+                    if (ordinal != null && matched.get(ordinal)) {
+                        ids.add(id);
+                    }
+                }
+            } else {
+                matched.stream().forEach(ordinal -> ids.add(productIds.get(ordinal)));
+            }
+            return new FacetResult(ids, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet toBits(List<String> ids) {
+        BitSet bits = new BitSet();
+        for (String id : ids) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                bits.set(ordinal);
+            }
+        }
+        return bits;
+    }
+
+    private int allocate(String productId) {
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = productIds.size();
+            productIds.add(productId);
+        } else {
+            ordinal = freeOrdinals.pop();
+            productIds.set(ordinal, productId);
+        }
+        ordinals.put(productId, ordinal);
+        return ordinal;
+    }
+
+    // Xóa bit của sản phẩm khỏi mọi giá trị facet cũ, trả về ordinal của nó
+    private int clearBits(String productId) {
+        int ordinal = ordinals.get(productId);
+        Map<ProductFacet, Set<String>> old = documents.remove(productId);
+        if (old != null) {
+            old.forEach((facet, values) -> {
+                Map<String, BitSet> byValue = postings.get(facet);
+                values.forEach(v -> {
+                    BitSet bits = byValue.get(v);
+                    bits.clear(ordinal);
+                    if (bits.isEmpty()) {
+                        byValue.remove(v);
+                    }
+                });
+            });
+        }
+        return ordinal;
+    }
+
+    private static Map<ProductFacet, Set<String>> extractValues(ProductResponse product) {
+        Map<ProductFacet, Set<String>> values = new EnumMap<>(ProductFacet.class);
+        addValue(values, ProductFacet.CATEGORY, product.getCategoryName());
+        addValue(values, ProductFacet.BRAND, product.getBrandName());
+
+        if (product.getVariants() != null) {
+            for (VariantResponse v : product.getVariants()) {
+                addValue(values, ProductFacet.STORAGE, v.getStorage());
+                addValue(values, ProductFacet.COLOR, v.getColor());
+            }
+        }
+        // minPrice đã được ProductService tính sẵn (giá variant thấp nhất, không có variant thì origin_price)
+        if (product.getMinPrice() != null) {
+            addValue(values, ProductFacet.PRICE, priceBand(product.getMinPrice()));
+        }
+        return values;
+    }
+
+    private static void addValue(Map<ProductFacet, Set<String>> values, ProductFacet facet, String value) {
+        if (value != null && !value.isBlank()) {
+            values.computeIfAbsent(facet, f -> new HashSet<>()).add(value.trim());
+        }
+    }
+
+    static String priceBand(BigDecimal price) {
+        long amount = price.longValue();
+        for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+            if (amount < PRICE_BOUNDS[i]) {
+                return PRICE_BANDS[i];
+            }
+        }
+        return PRICE_BANDS[PRICE_BANDS.length - 1];
+    }
+}
@@ -0,0 +1,176 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.CursorPage;
+import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.dto.response.VariantResponse;
+import com.qnboke04.techadict.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Inverted index trong bộ nhớ cho tìm kiếm sản phẩm.
+ * term (đã bỏ dấu tiếng Việt) -> (productId -> điểm). Truy vấn chỉ duyệt posting
+ * của các term khớp, không quét toàn bộ bảng products.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 8;
+    private static final int BRAND_CATEGORY_WEIGHT = 4;
+    private static final int VARIANT_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    ProductService productService;
+
+    // term -> (productId -> điểm); sắp xếp theo term để tra prefix
+    ConcurrentSkipListMap<String, Map<String, Integer>> postings = new ConcurrentSkipListMap<>();
+    // productId -> các term đã index (để gỡ khi cập nhật / xóa)
+    Map<String, Set<String>> documents = new ConcurrentHashMap<>();
+
+    // ✅ Dựng index khi ứng dụng khởi động, đọc lần lượt từng trang sản phẩm
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        postings.clear();
+        documents.clear();
+        String cursor = null;
+        do {
+            CursorPage<ProductResponse> page = productService.getPage(cursor, ProductService.MAX_PAGE_SIZE);
+            page.getItems().forEach(this::index);
+            cursor = page.getNext();
+        } while (cursor != null);
+        log.info("Product search index built: {} products, {} terms", documents.size(), postings.size());
+    }
+
+    // ✅ Cập nhật tăng dần sau khi ProductService ghi xong
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+    }
+
+    public synchronized void index(ProductResponse product) {
+        remove(product.getId());
+
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getBrandName(), BRAND_CATEGORY_WEIGHT);
+        addField(weights, product.getCategoryName(), BRAND_CATEGORY_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (product.getVariants() != null) {
+            for (VariantResponse v : product.getVariants()) {
+                addField(weights, v.getName(), VARIANT_WEIGHT);
+                addField(weights, v.getColor(), VARIANT_WEIGHT);
+                addField(weights, v.getStorage(), VARIANT_WEIGHT);
+            }
+        }
+
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(product.getId(), weight));
+        documents.put(product.getId(), weights.keySet());
+    }
+
+    public synchronized void remove(String productId) {
+        Set<String> terms = documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            postings.computeIfPresent(term, (t, docs) -> {
+                docs.remove(productId);
+                return docs.isEmpty() ? null : docs;
+            });
+        }
+    }
+
+    /**
+     * ✅ Trả về danh sách productId khớp TẤT CẢ các từ trong query, xếp theo điểm giảm dần.
+     * Từ cuối cùng được so khớp theo tiền tố để hỗ trợ gõ dở ("iph" -> "iphone").
+     */
+    public List<String> search(String query) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map<String, Integer>> perTerm = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            boolean prefix = i == terms.size() - 1;
+            Map<String, Integer> docs = lookup(terms.get(i), prefix);
+            if (docs.isEmpty()) {
+                return List.of();
+            }
+            perTerm.add(docs);
+        }
+
+        // Giao từ posting nhỏ nhất để số phần tử phải duyệt là ít nhất
+        perTerm.sort(Comparator.comparingInt(Map::size));
+        Map<String, Integer> scores = new HashMap<>(perTerm.get(0));
+        for (int i = 1; i < perTerm.size() && !scores.isEmpty(); i++) {
+            Map<String, Integer> docs = perTerm.get(i);
+            scores.entrySet().removeIf(e -> !docs.containsKey(e.getKey()));
+            scores.replaceAll((id, score) -> score + docs.getOrDefault(id, 0));
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<String, Integer> lookup(String term, boolean prefix) {
+        if (!prefix) {
+            return postings.getOrDefault(term, Map.of());
+        }
+        Map<String, Integer> merged = new HashMap<>();
+        postings.subMap(term, true, term + Character.MAX_VALUE, false).forEach((t, docs) ->
+                docs.forEach((id, weight) -> {
+                    // Khớp chính xác được điểm đầy đủ, khớp tiền tố chỉ được một nửa
+                    int score = t.equals(term) ? weight : Math.max(1, weight / 2);
+                    merged.merge(id, score, Math::max);
+                }));
+        return merged;
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // ✅ Chuẩn hóa: chữ thường, bỏ dấu tiếng Việt (kể cả đ -> d), tách theo ký tự không phải chữ/số
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(t -> !t.isEmpty())
+                .toList();
+    }
+}
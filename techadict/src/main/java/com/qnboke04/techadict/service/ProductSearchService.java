@@ -0,0 +1,63 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.FacetCount;
+import com.qnboke04.techadict.dto.response.ProductResponse;
+import com.qnboke04.techadict.dto.response.ProductSearchResponse;
+import com.qnboke04.techadict.enums.ProductFacet;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductSearchService {
+    ProductSearchIndex productSearchIndex;
+    ProductFacetIndex productFacetIndex;
+    ProductService productService;
+
+    // ✅ Tìm kiếm có xếp hạng + phân trang; chỉ nạp từ DB đúng các sản phẩm của trang hiện tại
+    @Transactional(readOnly = true)
+    public ProductSearchResponse search(String query, int page, Integer size) {
+        return toPage(productSearchIndex.search(query), page, size).build();
+    }
+
+    // ✅ Lọc theo facet (có thể kết hợp từ khóa) + trả về số đếm cho từng giá trị facet
+    @Transactional(readOnly = true)
+    public ProductSearchResponse facetedSearch(String query,
+                                               Map<ProductFacet, Set<String>> filters,
+                                               int page,
+                                               Integer size) {
+        List<String> candidates = query == null || query.isBlank() ? null : productSearchIndex.search(query);
+        ProductFacetIndex.FacetResult result = productFacetIndex.query(candidates, filters);
+
+        Map<ProductFacet, List<FacetCount>> facets = new EnumMap<>(ProductFacet.class);
+        result.counts().forEach((facet, counts) -> facets.put(facet, counts.entrySet().stream()
+                .map(e -> FacetCount.builder().value(e.getKey()).count(e.getValue()).build())
+                .toList()));
+
+        return toPage(result.productIds(), page, size)
+                .facets(facets)
+                .build();
+    }
+
+    private ProductSearchResponse.ProductSearchResponseBuilder toPage(List<String> ids, int page, Integer size) {
+        int limit = KeysetPage.limit(size, ProductService.DEFAULT_PAGE_SIZE, ProductService.MAX_PAGE_SIZE);
+        int pageIndex = Math.max(page, 0);
+
+        int from = (int) Math.min((long) pageIndex * limit, ids.size());
+        List<String> pageIds = ids.subList(from, Math.min(from + limit, ids.size()));
+
+        List<ProductResponse> items = productService.getByIds(pageIds);
+
+        return ProductSearchResponse.builder()
+                .items(items)
+                .total(ids.size())
+                .page(pageIndex)
+                .size(limit);
+    }
+}
@@ -2,11 +2,15 @@ package com.qnboke04.techadict.service;
 
 import com.qnboke04.techadict.dto.request.ProductRequest;
 import com.qnboke04.techadict.dto.request.VariantRequest;
+import com.qnboke04.techadict.dto.response.CursorPage;
+import com.qnboke04.techadict.dto.response.ProductCardResponse;
 import com.qnboke04.techadict.dto.response.ProductResponse;
 import com.qnboke04.techadict.entity.Brand;
 import com.qnboke04.techadict.entity.Category;
 import com.qnboke04.techadict.entity.ProductVariants;
 import com.qnboke04.techadict.entity.Products;
+import com.qnboke04.techadict.enums.ProductSort;
+import com.qnboke04.techadict.event.ProductChangedEvent;
 import com.qnboke04.techadict.exception.AppException;
 import com.qnboke04.techadict.exception.ErrorCode;
 import com.qnboke04.techadict.mapper.ProductMapper;
@@ -17,24 +21,43 @@ import com.qnboke04.techadict.repository.ProductRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
 public class ProductService {
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
     ProductRepository productRepository;
     CategoryRepository categoryRepository;
     BrandRepository brandRepository;
     IdGenerator idGenerator;
     ProductMapper productMapper;
     ProductVariantMapper productVariantMapper;
+    ApplicationEventPublisher eventPublisher;
+    ProductDetailCache productDetailCache;
+    TransactionTemplate transactionTemplate;
 
+    @Transactional
     public ProductResponse create(ProductRequest dto) {
         // Map từ DTO sang entity
         Products product = productMapper.toProduct(dto);
@@ -68,31 +91,112 @@ public class ProductService {
 
         // Map danh sách ảnh
         product.setImages(dto.getImages());
+        applyPriceRange(product);
 
         Products saved = productRepository.save(product);
-        return productMapper.toProductResponse(saved);
+        ProductResponse response = productMapper.toProductResponse(saved);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(response));
+        return response;
     }
 
-    public List<ProductResponse> getAll() {
-        return productRepository.findAll()
+    // ✅ Sản phẩm nổi bật, mới nhất trước — nguồn dựng FeaturedProductsSnapshot
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getFeatured() {
+        return initializeCollections(productRepository.findFeaturedWithDetails()).stream()
+                .map(productMapper::toProductResponse)
+                .toList();
+    }
+
+    // ✅ Nạp theo danh sách id (giữ nguyên thứ tự đầu vào), dùng cho kết quả tìm kiếm / facet
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Products> byId = initializeCollections(productRepository.findAllWithDetailsByIdIn(ids))
                 .stream()
+                .collect(Collectors.toMap(Products::getId, p -> p));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(productMapper::toProductResponse)
                 .toList();
     }
 
+    // ✅ Phân trang keyset: độ trễ không phụ thuộc client đã lật tới trang thứ bao nhiêu
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getPage(String cursor, Integer size) {
+        return getPage(cursor, size, ProductSort.NEWEST);
+    }
+
+    // ✅ Sắp xếp theo giá đi theo index (min_price, id), DB không phải sort toàn bảng
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getPage(String cursor, Integer size, ProductSort sort) {
+        int limit = KeysetPage.limit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        Pageable window = KeysetPage.window(limit);
+        KeysetCursor after = KeysetPage.after(cursor);
+
+        List<Products> rows = switch (sort) {
+            case NEWEST -> after == null
+                    ? productRepository.findFirstPage(window)
+                    : productRepository.findPageAfter(after.keyAsDateTime(), after.id(), window);
+            case PRICE_ASC -> after == null
+                    ? productRepository.findFirstPageByPriceAsc(window)
+                    : productRepository.findPageByPriceAscAfter(after.keyAsDecimal(), after.id(), window);
+            case PRICE_DESC -> after == null
+                    ? productRepository.findFirstPageByPriceDesc(window)
+                    : productRepository.findPageByPriceDescAfter(after.keyAsDecimal(), after.id(), window);
+        };
+
+        return KeysetPage.of(rows, limit,
+                last -> sort == ProductSort.NEWEST
+                        ? KeysetCursor.of(last.getCreatedAt(), last.getId())
+                        : KeysetCursor.of(last.getMinPrice(), last.getId()),
+                page -> initializeCollections(page).stream().map(productMapper::toProductResponse).toList());
+    }
+
+    // ✅ View "card": 1 câu SQL projection, không nạp entity / collection nào
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCardResponse> getCardPage(String cursor, Integer size) {
+        int limit = KeysetPage.limit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        Pageable window = KeysetPage.window(limit);
+        KeysetCursor after = KeysetPage.after(cursor);
+
+        List<ProductCardResponse> rows = after == null
+                ? productRepository.findFirstCardPage(window)
+                : productRepository.findCardPageAfter(after.keyAsDateTime(), after.id(), window);
+        return KeysetPage.of(rows, limit, last -> KeysetCursor.of(last.getCreatedAt(), last.getId()), page -> page);
+    }
+
+    // ✅ Đọc qua cache; chỉ khi miss mới mở transaction và nạp từ DB
     public ProductResponse getById(String id) {
-        Products product = productRepository.findById(id)
+        return getDetail(id).product();
+    }
+
+    // ✅ Chi tiết kèm phiên bản cho ETag; cache hit thì không chạm DB
+    public ProductDetailCache.Detail getDetail(String id) {
+        return productDetailCache.get(id, key -> transactionTemplate.execute(status -> loadDetail(key)));
+    }
+
+    // 3 câu SQL: product + category/brand/variants, images, rồi phiên bản (cùng transaction với dữ liệu)
+    private ProductDetailCache.Detail loadDetail(String id) {
+        Products product = productRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + id));
-        return productMapper.toProductResponse(product);
+        productRepository.fetchImages(List.of(product));
+        return new ProductDetailCache.Detail(productMapper.toProductResponse(product),
+                productRepository.versionOf(id).orElseThrow());
     }
 
+    @Transactional
     public void delete(String id) {
         if (!productRepository.existsById(id)) {
             throw new IllegalArgumentException("Product not found: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
+    @Transactional
     public ProductResponse update(String id, ProductRequest dto) {
         Products existing = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + id));
@@ -103,6 +207,8 @@ public class ProductService {
         existing.setOrigin_price(dto.getOrigin_price());
         existing.setFeatured(dto.getFeatured());
         existing.setImages(dto.getImages());
+        // images là element collection: đổi ảnh không sinh UPDATE products → tự chạm updatedAt để ETag đổi theo
+        existing.setUpdatedAt(LocalDateTime.now());
 
         // 🔹 Category
         if (dto.getCategoryId() != null) {
@@ -163,12 +269,41 @@ public class ProductService {
                 .map(v -> v.getQuantity() == null ? 0 : v.getQuantity())
                 .reduce(0, Integer::sum);
         existing.setQuantity(totalQuantity);
+        applyPriceRange(existing);
 
         Products updated = productRepository.save(existing);
-        return productMapper.toProductResponse(updated);
+        ProductResponse response = productMapper.toProductResponse(updated);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(response));
+        return response;
     }
 
+    // ✅ Điền minPrice / maxPrice cho sản phẩm có từ trước (một câu UPDATE, chỉ chạm dòng còn null)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPriceRange() {
+        int updated = productRepository.backfillPriceRange();
+        if (updated > 0) {
+            log.info("Backfilled price range for {} products", updated);
+        }
+    }
 
+    // minPrice / maxPrice theo giá variant; không có variant thì theo origin_price, không có nữa thì 0
+    private void applyPriceRange(Products product) {
+        List<BigDecimal> prices = product.getVariants() == null ? List.of() : product.getVariants().stream()
+                .map(ProductVariants::getPrice)
+                .filter(Objects::nonNull)
+                .toList();
+        BigDecimal fallback = product.getOrigin_price() != null ? product.getOrigin_price() : BigDecimal.ZERO;
+        product.setMinPrice(prices.stream().min(Comparator.naturalOrder()).orElse(fallback));
+        product.setMaxPrice(prices.stream().max(Comparator.naturalOrder()).orElse(fallback));
+    }
 
-
+    // Nạp variants và images cho cả danh sách bằng 2 query, thay vì 2 query cho mỗi sản phẩm
+    private List<Products> initializeCollections(List<Products> products) {
+        if (!products.isEmpty()) {
+            productRepository.fetchVariants(products);
+            productRepository.fetchImages(products);
+        }
+        return products;
+    }
 }
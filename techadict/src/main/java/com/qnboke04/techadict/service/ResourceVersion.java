@@ -0,0 +1,59 @@
+package com.qnboke04.techadict.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ✅ Phiên bản của một tài nguyên / tập tài nguyên, tính từ updatedAt (BaseEntity).
+ * count giúp ETag đổi cả khi xóa bản ghi (max(updatedAt) không đổi khi xóa).
+ */
+public record ResourceVersion(Long count, LocalDateTime lastModified) {
+
+    // Dùng cho query JPQL gộp nhiều mốc updatedAt (sản phẩm, variant, category, brand)
+    public ResourceVersion(Long count, LocalDateTime a, LocalDateTime b, LocalDateTime c, LocalDateTime d) {
+        this(count, Stream.of(a, b, c, d)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null));
+    }
+
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+
+    // Strong ETag: đổi khi count, updatedAt hoặc tham số truy vấn (cursor, size...) đổi
+    public String etag(Object... discriminators) {
+        String raw = count + ":" + lastModified + ":" + Arrays.stream(discriminators)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return "\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null
+                ? -1
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * ✅ Gắn ETag + Last-Modified vào response và so với If-None-Match / If-Modified-Since.
+     * Trả về true khi client đã có bản mới nhất → controller trả null, Spring gửi 304 không body.
+     */
+    public boolean checkNotModified(WebRequest request, Object... discriminators) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            // Cho phép trình duyệt lưu bản sao nhưng luôn hỏi lại server trước khi dùng
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        return request.checkNotModified(etag(discriminators), lastModifiedMillis());
+    }
+}
@@ -0,0 +1,255 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.RollupRebuildResponse;
+import com.qnboke04.techadict.entity.OrderItem;
+import com.qnboke04.techadict.entity.Orders;
+import com.qnboke04.techadict.entity.SalesDailyStatus;
+import com.qnboke04.techadict.entity.SalesDailyVariant;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.enums.PaymentStatus;
+import com.qnboke04.techadict.repository.OrderItemRepository;
+import com.qnboke04.techadict.repository.OrderItemRepository.DailyVariantTotals;
+import com.qnboke04.techadict.repository.OrderRepository;
+import com.qnboke04.techadict.repository.OrderRepository.DailyStatusTotals;
+import com.qnboke04.techadict.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ✅ Duy trì rollup doanh số theo ngày (sales_daily_status, sales_daily_variant).
+ *
+ * - Mỗi thay đổi của đơn (tạo, đổi trạng thái, đổi trạng thái thanh toán, hủy) cộng phần chênh lệch
+ *   vào rollup trong CÙNG transaction (MANDATORY): đơn commit thì rollup đúng, rollup không lệch khi rollback.
+ * - Đơn được tính vào ngày đặt; đổi trạng thái chỉ chuyển số liệu giữa các trạng thái của ngày đó.
+ * - Mỗi transaction ghi vào một slot ngẫu nhiên nên các đơn đặt cùng lúc không khóa cùng một dòng.
+ * - rebuild() dựng lại rollup từ orders / order_items (backfill, sửa lệch); nên chạy lúc ít tải.
+ */
+@Component
+@Slf4j
+public class SalesRollup {
+    private static final int REBUILD_DAYS = 7; // số ngày dựng lại trong mỗi transaction
+
+    private final SalesRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int slots;
+
+    public SalesRollup(SalesRollupRepository rollupRepository,
+                       OrderRepository orderRepository,
+                       OrderItemRepository orderItemRepository,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${statistics.rollup.slots:8}") int slots) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.slots = Math.max(1, slots);
+    }
+
+    /**
+     * Ghi phần chênh lệch của đơn vào rollup: trừ phần đóng góp cũ (previousStatus / previousPayment),
+     * cộng phần đóng góp hiện tại. previousStatus = null nghĩa là đơn mới tạo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Orders order, OrderStatus previousStatus, PaymentStatus previousPayment) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+        PaymentStatus payment = order.getPayment() != null ? order.getPayment().getStatus() : null;
+
+        // TreeMap: ghi theo thứ tự id → các transaction khóa dòng rollup cùng một thứ tự
+        Map<String, SalesDailyStatus> statusDeltas = new TreeMap<>();
+        Map<String, SalesDailyVariant> variantDeltas = new TreeMap<>();
+        if (previousStatus != null) {
+            addStatus(statusDeltas, order, day, slot, previousStatus, previousPayment, -1);
+        }
+        addStatus(statusDeltas, order, day, slot, order.getStatus(), payment, 1);
+
+        // Chỉ đổi thanh toán → phần theo variant không đổi, không cần nạp dòng đơn
+        if (previousStatus != order.getStatus()) {
+            if (previousStatus != null) {
+                addVariants(variantDeltas, order, day, slot, previousStatus, -1);
+            }
+            addVariants(variantDeltas, order, day, slot, order.getStatus(), 1);
+        }
+
+        statusDeltas.values().removeIf(r -> r.getOrders() == 0
+                && r.getRevenue().signum() == 0 && r.getPaidRevenue().signum() == 0);
+        variantDeltas.values().removeIf(r -> r.getUnits() == 0 && r.getRevenue().signum() == 0);
+        rollupRepository.addStatus(statusDeltas.values());
+        rollupRepository.addVariant(variantDeltas.values());
+    }
+
+    /**
+     * Chuyển số liệu của một nhóm đơn sang trạng thái target (chuyển trạng thái hàng loạt).
+     * statusTotals / variantTotals là số liệu của chính các đơn đó, gom theo ngày + trạng thái hiện tại.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(List<DailyStatusTotals> statusTotals, List<DailyVariantTotals> variantTotals, OrderStatus target) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        Map<String, SalesDailyStatus> statusDeltas = new TreeMap<>();
+        Map<String, SalesDailyVariant> variantDeltas = new TreeMap<>();
+        for (DailyStatusTotals t : statusTotals) {
+            addStatus(statusDeltas, t.getSalesDate(), slot, t.getStatus(),
+                    -t.getOrders(), orZero(t.getRevenue()).negate(), orZero(t.getPaidRevenue()).negate());
+            addStatus(statusDeltas, t.getSalesDate(), slot, target,
+                    t.getOrders(), orZero(t.getRevenue()), orZero(t.getPaidRevenue()));
+        }
+        for (DailyVariantTotals t : variantTotals) {
+            addVariant(variantDeltas, t.getSalesDate(), t.getVariantId(), t.getProductId(), slot, t.getStatus(),
+                    -t.getUnits(), orZero(t.getRevenue()).negate());
+            addVariant(variantDeltas, t.getSalesDate(), t.getVariantId(), t.getProductId(), slot, target,
+                    t.getUnits(), orZero(t.getRevenue()));
+        }
+        rollupRepository.addStatus(statusDeltas.values());
+        rollupRepository.addVariant(variantDeltas.values());
+    }
+
+    // ✅ Khởi động lần đầu sau khi có bảng rollup: dựng từ các đơn đã có
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (rollupRepository.count() == 0 && orderRepository.findFirstCreatedAt() != null) {
+            RollupRebuildResponse result = rebuild(null, null);
+            log.info("Sales rollup backfilled: {}", result);
+        }
+    }
+
+    /**
+     * ✅ Dựng lại rollup cho [from, to] (bỏ trống = từ đơn đầu tiên đến hôm nay) từ orders / order_items.
+     * Mỗi khối REBUILD_DAYS ngày: xóa rollup cũ rồi ghi số liệu tổng hợp trong 1 transaction.
+     */
+    public RollupRebuildResponse rebuild(LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from;
+        if (first == null) {
+            LocalDateTime firstOrder = orderRepository.findFirstCreatedAt();
+            first = firstOrder != null ? firstOrder.toLocalDate() : last;
+        }
+        if (first.isAfter(last)) {
+            throw new RuntimeException("from phải trước hoặc bằng to");
+        }
+
+        int statusRows = 0;
+        int variantRows = 0;
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(REBUILD_DAYS)) {
+            LocalDate start = day;
+            LocalDate end = day.plusDays(REBUILD_DAYS - 1).isAfter(last) ? last : day.plusDays(REBUILD_DAYS - 1);
+            int[] rows = transactionTemplate.execute(status -> rebuildRange(start, end));
+            statusRows += rows[0];
+            variantRows += rows[1];
+        }
+        return RollupRebuildResponse.builder()
+                .from(first)
+                .to(last)
+                .statusRows(statusRows)
+                .variantRows(variantRows)
+                .build();
+    }
+
+    private int[] rebuildRange(LocalDate from, LocalDate to) {
+        rollupRepository.deleteStatusBetween(from, to);
+        rollupRepository.deleteVariantBetween(from, to);
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        List<SalesDailyStatus> statusRows = orderRepository.sumDailyByStatus(start, end, PaymentStatus.SUCCESS).stream()
+                .map(t -> SalesDailyStatus.builder()
+                        .id(key(t.getSalesDate(), t.getStatus(), 0))
+                        .salesDate(t.getSalesDate())
+                        .status(t.getStatus())
+                        .slot(0)
+                        .orders(t.getOrders())
+                        .revenue(orZero(t.getRevenue()))
+                        .paidRevenue(orZero(t.getPaidRevenue()))
+                        .build())
+                .toList();
+        List<SalesDailyVariant> variantRows = orderItemRepository.sumDailyByVariant(start, end).stream()
+                .map(t -> SalesDailyVariant.builder()
+                        .id(key(t.getSalesDate(), t.getVariantId(), t.getStatus(), 0))
+                        .salesDate(t.getSalesDate())
+                        .variantId(t.getVariantId())
+                        .productId(t.getProductId())
+                        .status(t.getStatus())
+                        .slot(0)
+                        .units(t.getUnits())
+                        .revenue(orZero(t.getRevenue()))
+                        .build())
+                .toList();
+        rollupRepository.addStatus(statusRows);
+        rollupRepository.addVariant(variantRows);
+        return new int[]{statusRows.size(), variantRows.size()};
+    }
+
+    private static void addStatus(Map<String, SalesDailyStatus> deltas, Orders order, LocalDate day, int slot,
+                                  OrderStatus status, PaymentStatus payment, int sign) {
+        BigDecimal amount = orZero(order.getTotalAmount()).multiply(BigDecimal.valueOf(sign));
+        addStatus(deltas, day, slot, status, sign, amount,
+                payment == PaymentStatus.SUCCESS ? amount : BigDecimal.ZERO);
+    }
+
+    private static void addVariants(Map<String, SalesDailyVariant> deltas, Orders order, LocalDate day, int slot,
+                                    OrderStatus status, int sign) {
+        for (OrderItem item : order.getItems()) {
+            addVariant(deltas, day, item.getVariant().getId(), item.getVariant().getProduct().getId(), slot, status,
+                    (long) sign * item.getQuantity(), item.getSubtotal().multiply(BigDecimal.valueOf(sign)));
+        }
+    }
+
+    private static void addStatus(Map<String, SalesDailyStatus> deltas, LocalDate day, int slot, OrderStatus status,
+                                  long orders, BigDecimal revenue, BigDecimal paidRevenue) {
+        SalesDailyStatus row = deltas.computeIfAbsent(key(day, status, slot), id -> SalesDailyStatus.builder()
+                .id(id)
+                .salesDate(day)
+                .status(status)
+                .slot(slot)
+                .orders(0L)
+                .revenue(BigDecimal.ZERO)
+                .paidRevenue(BigDecimal.ZERO)
+                .build());
+        row.setOrders(row.getOrders() + orders);
+        row.setRevenue(row.getRevenue().add(revenue));
+        row.setPaidRevenue(row.getPaidRevenue().add(paidRevenue));
+    }
+
+    private static void addVariant(Map<String, SalesDailyVariant> deltas, LocalDate day, String variantId,
+                                   String productId, int slot, OrderStatus status, long units, BigDecimal revenue) {
+        SalesDailyVariant row = deltas.computeIfAbsent(key(day, variantId, status, slot), id -> SalesDailyVariant.builder()
+                .id(id)
+                .salesDate(day)
+                .variantId(variantId)
+                .productId(productId)
+                .status(status)
+                .slot(slot)
+                .units(0L)
+                .revenue(BigDecimal.ZERO)
+                .build());
+        row.setUnits(row.getUnits() + units);
+        row.setRevenue(row.getRevenue().add(revenue));
+    }
+
+    private static String key(LocalDate day, OrderStatus status, int slot) {
+        return day + "|" + status + "|" + slot;
+    }
+
+    private static String key(LocalDate day, String variantId, OrderStatus status, int slot) {
+        return day + "|" + variantId + "|" + status + "|" + slot;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
@@ -0,0 +1,119 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.response.*;
+import com.qnboke04.techadict.enums.OrderStatus;
+import com.qnboke04.techadict.repository.OrderRepository;
+import com.qnboke04.techadict.repository.SalesRollupRepository;
+import com.qnboke04.techadict.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * ✅ Thống kê doanh số đọc từ rollup theo ngày (SalesRollup) — chi phí tỉ lệ với số ngày, không với số đơn.
+ * Doanh thu không tính đơn đã hủy; khoảng thời gian [from, to] tính trọn ngày, bỏ trống = không giới hạn.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@Transactional(readOnly = true)
+public class StatisticsService {
+    public static final int DEFAULT_TOP_PRODUCTS = 5;
+    public static final int MAX_TOP_PRODUCTS = 50;
+
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+
+    SalesRollupRepository rollupRepository;
+    OrderRepository orderRepository;
+    UserRepository userRepository;
+
+    public SalesStatisticsResponse getAll(LocalDate from, LocalDate to, Integer top) {
+        return SalesStatisticsResponse.builder()
+                .summary(getSummary(from, to))
+                .byStatus(getByStatus(from, to))
+                .topProducts(getTopProducts(from, to, top))
+                .monthly(getMonthly(from, to))
+                .build();
+    }
+
+    public SalesSummaryResponse getSummary(LocalDate from, LocalDate to) {
+        SalesRollupRepository.SalesTotals totals = rollupRepository.sumSales(first(from), last(to), OrderStatus.CANCELED);
+        BigDecimal revenue = totals.getRevenue() == null ? BigDecimal.ZERO : totals.getRevenue();
+        long orders = totals.getOrders() == null ? 0 : totals.getOrders();
+        return SalesSummaryResponse.builder()
+                .totalRevenue(revenue)
+                .paidRevenue(totals.getPaidRevenue() == null ? BigDecimal.ZERO : totals.getPaidRevenue())
+                .totalOrders(orders)
+                .uniqueCustomers(orderRepository.countCustomers(
+                        first(from).atStartOfDay(), last(to).plusDays(1).atStartOfDay(), OrderStatus.CANCELED))
+                .averageOrderValue(orders == 0
+                        ? BigDecimal.ZERO
+                        : revenue.divide(BigDecimal.valueOf(orders), 0, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    public List<StatusCountResponse> getByStatus(LocalDate from, LocalDate to) {
+        return rollupRepository.countByStatus(first(from), last(to));
+    }
+
+    public List<ProductSalesResponse> getTopProducts(LocalDate from, LocalDate to, Integer top) {
+        int limit = top == null || top <= 0 ? DEFAULT_TOP_PRODUCTS : Math.min(top, MAX_TOP_PRODUCTS);
+        return rollupRepository.topProducts(first(from), last(to), OrderStatus.CANCELED, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Doanh thu, số đơn và người dùng mới theo tháng; tháng không có dữ liệu vẫn có mặt (giá trị 0)
+     * để biểu đồ liền mạch.
+     */
+    public List<MonthlySalesResponse> getMonthly(LocalDate from, LocalDate to) {
+        TreeMap<YearMonth, MonthlySalesResponse> months = new TreeMap<>();
+        rollupRepository.sumByMonth(first(from), last(to), OrderStatus.CANCELED).forEach(m -> {
+            MonthlySalesResponse month = month(months, YearMonth.of(m.getYear(), m.getMonth()));
+            month.setRevenue(m.getRevenue() == null ? BigDecimal.ZERO : m.getRevenue());
+            month.setOrders(m.getOrders());
+        });
+        userRepository.countNewByMonth(first(from).atStartOfDay(), last(to).plusDays(1).atStartOfDay()).forEach(m ->
+                month(months, YearMonth.of(m.getYear(), m.getMonth())).setNewUsers(m.getTotal()));
+
+        if (from == null && months.isEmpty()) {
+            return List.of();
+        }
+        YearMonth first = from != null ? YearMonth.from(from) : months.firstKey();
+        YearMonth last = YearMonth.from(to != null ? to : LocalDate.now());
+        List<MonthlySalesResponse> result = new ArrayList<>();
+        for (YearMonth ym = first; !ym.isAfter(last); ym = ym.plusMonths(1)) {
+            result.add(month(months, ym));
+        }
+        return result;
+    }
+
+    private static MonthlySalesResponse month(Map<YearMonth, MonthlySalesResponse> months, YearMonth ym) {
+        return months.computeIfAbsent(ym, k -> MonthlySalesResponse.builder()
+                .month(k.toString())
+                .revenue(BigDecimal.ZERO)
+                .orders(0L)
+                .newUsers(0L)
+                .build());
+    }
+
+    private static LocalDate first(LocalDate from) {
+        return from == null ? EPOCH : from;
+    }
+
+    private static LocalDate last(LocalDate to) {
+        return to == null ? LocalDate.now() : to;
+    }
+}
@@ -0,0 +1,84 @@
+package com.qnboke04.techadict.configuration;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.qnboke04.techadict.controller.CacheController;
+import com.qnboke04.techadict.dto.response.CacheStatsResponse;
+import com.qnboke04.techadict.dto.response.IntrospectResponse;
+import com.qnboke04.techadict.service.AuthenticationService;
+import com.qnboke04.techadict.service.ProductDetailCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Scope trong token có dạng "ROLE_ADMIN ..." (AuthenticationService.buildScope), converter không thêm tiền tố
+@WebMvcTest(CacheController.class)
+@Import({SecurityConfig.class, CustomJwtDecoder.class})
+class SecurityConfigTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    AuthenticationService authenticationService;
+
+    @MockitoBean
+    ProductDetailCache productDetailCache;
+
+    @Value("${jwt.signerKey}")
+    String signerKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(authenticationService.introspect(any()))
+                .thenReturn(IntrospectResponse.builder().valid(true).build());
+        when(productDetailCache.stats()).thenReturn(CacheStatsResponse.builder().build());
+    }
+
+    @Test
+    void adminTokenReachesAdminEndpoints() throws Exception {
+        mockMvc.perform(get("/admin/cache/products").header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userTokenIsForbiddenFromAdminEndpoints() throws Exception {
+        mockMvc.perform(get("/admin/cache/products").header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/orders/status:bulk").header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String bearer(String scope) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), new JWTClaimsSet.Builder()
+                .subject("admin@techadict.vn")
+                .issuer("techadict.com")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("scope", scope)
+                .build());
+        jwt.sign(new MACSigner(signerKey.getBytes()));
+        return "Bearer " + jwt.serialize();
+    }
+}
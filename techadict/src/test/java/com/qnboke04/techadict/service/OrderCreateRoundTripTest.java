@@ -0,0 +1,94 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.dto.request.OrderItemRequest;
+import com.qnboke04.techadict.dto.request.OrderRequest;
+import com.qnboke04.techadict.dto.request.ShippingInfo;
+import com.qnboke04.techadict.entity.ProductVariants;
+import com.qnboke04.techadict.entity.Products;
+import com.qnboke04.techadict.entity.Users;
+import com.qnboke04.techadict.mapper.OrderMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderService.class, OrderMapperImpl.class, IdGenerator.class, InventoryLedger.class,
+        OrderOutbox.class, SalesRollup.class, JacksonAutoConfiguration.class})
+class OrderCreateRoundTripTest {
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    StatementCounter statements;
+    List<String> variantIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounter(em, entityManagerFactory);
+        em.persist(Users.builder().id("USER-1").email("buyer@techadict.vn").build());
+
+        Products product = Products.builder()
+                .id("PROD-1")
+                .name("iPhone")
+                .variants(new ArrayList<>())
+                .build();
+        for (int v = 0; v < 20; v++) {
+            product.getVariants().add(ProductVariants.builder()
+                    .id("VAR-" + v)
+                    .name("Variant " + v)
+                    .price(BigDecimal.valueOf(1_000_000L))
+                    .quantity(100)
+                    .product(product)
+                    .build());
+            variantIds.add("VAR-" + v);
+        }
+        em.persist(product);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithLineCount() {
+        long small = statements.count(() -> assertThat(orderService.create(orderOf(2)).getItems()).hasSize(2));
+        long large = statements.count(() -> assertThat(orderService.create(orderOf(20)).getItems()).hasSize(20));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void reservesStockForEveryLine() {
+        orderService.create(orderOf(20));
+        em.flush();
+        em.clear();
+
+        variantIds.forEach(id -> assertThat(em.find(ProductVariants.class, id).getQuantity()).isEqualTo(99));
+    }
+
+    private OrderRequest orderOf(int lines) {
+        List<OrderItemRequest> items = variantIds.subList(0, lines).stream()
+                .map(id -> OrderItemRequest.builder().variantId(id).quantity(1).build())
+                .toList();
+        return OrderRequest.builder()
+                .userId("USER-1")
+                .shippingInfo(ShippingInfo.builder().fullName("Nguyen Van A").phone("0900000000").city("HCM").build())
+                .items(items)
+                .build();
+    }
+}
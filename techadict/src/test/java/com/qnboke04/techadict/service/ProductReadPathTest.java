@@ -0,0 +1,109 @@
+package com.qnboke04.techadict.service;
+
+import com.qnboke04.techadict.entity.Brand;
+import com.qnboke04.techadict.entity.Category;
+import com.qnboke04.techadict.entity.ProductVariants;
+import com.qnboke04.techadict.entity.Products;
+import com.qnboke04.techadict.mapper.ProductMapperImpl;
+import com.qnboke04.techadict.mapper.ProductVariantMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductService.class, ProductDetailCache.class, ProductMapperImpl.class, ProductVariantMapperImpl.class,
+        IdGenerator.class})
+class ProductReadPathTest {
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    StatementCounter statements;
+    Category category;
+    Brand brand;
+    int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounter(em, entityManagerFactory);
+        category = em.persist(Category.builder().id("CAT-1").name("Phone").build());
+        brand = em.persist(Brand.builder().id("BR-1").name("Apple").build());
+    }
+
+    @Test
+    void getPageStatementCountDoesNotGrowWithPageSize() {
+        seedProducts(50, 3);
+        long small = statements.count(() -> assertThat(productService.getPage(null, 5).getItems()).hasSize(5));
+        long large = statements.count(() -> assertThat(productService.getPage(null, 50).getItems()).hasSize(50));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void getByIdStatementCountDoesNotGrowWithVariants() {
+        String few = seedProducts(1, 1).get(0);
+        String many = seedProducts(1, 25).get(0);
+
+        long small = statements.count(() -> assertThat(productService.getById(few).getVariants()).hasSize(1));
+        long large = statements.count(() -> assertThat(productService.getById(many).getVariants()).hasSize(25));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void cachedDetailServesVersionWithoutStatements() {
+        String id = seedProducts(1, 3).get(0);
+        ProductDetailCache.Detail loaded = productService.getDetail(id);
+
+        long cached = statements.count(() -> assertThat(productService.getDetail(id).version())
+                .isEqualTo(loaded.version()));
+
+        assertThat(loaded.version().exists()).isTrue();
+        assertThat(cached).isZero();
+    }
+
+    private List<String> seedProducts(int count, int variantsPerProduct) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = "PROD-" + (sequence++);
+            Products product = Products.builder()
+                    .id(id)
+                    .name("Product " + id)
+                    .category(category)
+                    .brand(brand)
+                    .images(new ArrayList<>(List.of(id + "-1.png", id + "-2.png")))
+                    .variants(new ArrayList<>())
+                    .build();
+            for (int v = 0; v < variantsPerProduct; v++) {
+                product.getVariants().add(ProductVariants.builder()
+                        .id(id + "-VAR-" + v)
+                        .name("Variant " + v)
+                        .price(BigDecimal.valueOf(1_000_000L + v))
+                        .quantity(10)
+                        .product(product)
+                        .build());
+            }
+            em.persist(product);
+            ids.add(id);
+        }
+        em.flush();
+        em.clear();
+        return ids;
+    }
+}
@@ -0,0 +1,29 @@
+package com.qnboke04.techadict.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+/**
+ * Đếm số câu SQL Hibernate chuẩn bị trong một thao tác (cần hibernate.generate_statistics=true).
+ * Thao tác bắt đầu với persistence context trống; câu INSERT / UPDATE được flush sau thao tác cũng được tính.
+ */
+final class StatementCounter {
+    private final TestEntityManager em;
+    private final Statistics statistics;
+
+    StatementCounter(TestEntityManager em, EntityManagerFactory entityManagerFactory) {
+        this.em = em;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    long count(Runnable action) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        action.run();
+        em.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}